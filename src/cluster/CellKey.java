@@ -0,0 +1,46 @@
+package cluster;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Utility class packing the term ids of a cell(category, detail, keyword) into a single long key, 21 bits per id
+ */
+public final class CellKey {
+
+    public static final int ID_BITS = 21;
+    /**
+     * The largest term id which can be packed
+     */
+    public static final int MAX_ID = (1 << ID_BITS) - 1;
+
+    private CellKey(){
+    }
+
+    /**
+     * A method for packing the term ids of a cell
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @return The packed key
+     * @throws IllegalArgumentException when an id is negative or larger than MAX_ID
+     */
+    public static long pack(int category, int detail, int keyword) throws IllegalArgumentException{
+        if(((category | detail | keyword) & ~MAX_ID) != 0){
+            throw new IllegalArgumentException(String.format("The term ids [%d, %d, %d] cannot be packed into a cell key", category, detail, keyword));
+        }
+        return ((long) category << (ID_BITS * 2)) | ((long) detail << ID_BITS) | keyword;
+    }
+
+    public static int category(long key){
+        return (int) (key >>> (ID_BITS * 2)) & MAX_ID;
+    }
+
+    public static int detail(long key){
+        return (int) (key >>> ID_BITS) & MAX_ID;
+    }
+
+    public static int keyword(long key){
+        return (int) key & MAX_ID;
+    }
+
+}
@@ -1,11 +1,34 @@
 package cluster;
 
+import cluster.collection.LongObjectMap;
+import cluster.constants.AggregationStrategy;
 import cluster.constants.FlagState;
+import cluster.constants.StorageMode;
+import cluster.model.CountEstimate;
+import cluster.model.HeavyHitter;
+import cluster.model.KeywordPair;
+import cluster.normalization.matcher.MatcherEngine;
+import cluster.store.CellIndex;
+import cluster.store.CooccurrenceMatrix;
+import cluster.store.CountMinSketch;
+import cluster.store.DenseCountTensor;
+import cluster.store.DistinctSources;
+import cluster.store.HyperLogLog;
+import cluster.store.SpaceSaving;
+import cluster.store.WindowedCounts;
 import source.DataSource;
 import target.Target;
+import target.TermDictionary;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * @author EuiJin.Ham
@@ -15,7 +38,44 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public abstract class Cluster<T> implements ICluster<T>{
 
-    protected ConcurrentHashMap<String, ClusteringRaw> clusteringRawMap;
+    /**
+     * The key returned for names which do not address a cell of the target
+     */
+    protected static final long NO_KEY = -1L;
+    /**
+     * The default memory budget of the dense count tensor (64MB)
+     */
+    public static final long DEFAULT_DENSE_MEMORY_BUDGET = 64L << 20;
+    /**
+     * The default number of hits a worker counts into its partial table before merging it
+     */
+    public static final int DEFAULT_FLUSH_INTERVAL = 1 << 16;
+    /**
+     * The default dimensions of the count sketch (2MB - An error of 0.004% of the total hits with the confidence of 98%)
+     */
+    public static final int DEFAULT_SKETCH_WIDTH = 1 << 16;
+    public static final int DEFAULT_SKETCH_DEPTH = 4;
+    /**
+     * The default precision of the distinct-source sketches (256 bytes per cell - The standard error of 6.5%)
+     */
+    public static final int DEFAULT_DISTINCT_PRECISION = 8;
+
+    /**
+     * Cells keyed by the packed term ids of (category, detail, keyword) - Refer CellKey
+     */
+    protected LongObjectMap<ClusteringRaw> clusteringRawMap;
+    /**
+     * The secondary indexes of the cells of clusteringRawMap by category, detail and keyword - A cell is indexed as it is created
+     */
+    protected final CellIndex cellIndex = new CellIndex();
+    /**
+     * The count tensor holding the cells in dense mode (null in sparse mode) - The cells are held either by this tensor or by clusteringRawMap
+     */
+    protected volatile DenseCountTensor countTensor;
+    /**
+     * The count sketch holding the approximate counts of the cells in sketch mode (null in the other modes)
+     */
+    protected volatile CountMinSketch countSketch;
     /**
      * Target Instance
      */
@@ -28,6 +88,77 @@ public abstract class Cluster<T> implements ICluster<T>{
      * Debug Mode Flag
      */
     private boolean debug = false;
+    /**
+     * The engine of the compiled matcher used for normalizing
+     */
+    private MatcherEngine matcherEngine = MatcherEngine.DOUBLE_ARRAY;
+    /**
+     * The requested storage backend of the cells
+     */
+    private StorageMode storageMode = StorageMode.SPARSE;
+    /**
+     * The largest size in bytes of the dense count tensor
+     */
+    private long denseMemoryBudget = DEFAULT_DENSE_MEMORY_BUDGET;
+    /**
+     * The dimensions of the count sketch
+     */
+    private int sketchWidth = DEFAULT_SKETCH_WIDTH;
+    private int sketchDepth = DEFAULT_SKETCH_DEPTH;
+    /**
+     * The way the workers count the cells
+     */
+    private AggregationStrategy aggregationStrategy = AggregationStrategy.SHARED;
+    /**
+     * The number of hits a worker counts into its partial table before merging it
+     */
+    private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+    /**
+     * The partial table of each worker thread in PARTIAL strategy and the registry of every partial table for the final merge
+     * (The tables of the terminated workers are removed by flushPartials(), so the registry is bounded by the live workers)
+     */
+    private final ThreadLocal<PartialAggregate> partials = ThreadLocal.withInitial(this::registerPartial);
+    private final Queue<PartialAggregate> partialRegistry = new ConcurrentLinkedQueue<>();
+    /**
+     * The time-bucketed counts of the cells in windowed mode (null if the window is disabled)
+     */
+    private volatile WindowedCounts windowedCounts;
+    /**
+     * The number of counters of the heavy-hitter summary of each category (0 if the summaries are disabled)
+     */
+    private volatile int heavyHitterCapacity = 0;
+    /**
+     * The heavy-hitter summary of each category keyed by the category id
+     */
+    private final LongObjectMap<SpaceSaving> heavyHitters = new LongObjectMap<>();
+    /**
+     * false if the cells are only counted by the heavy-hitter summaries
+     */
+    private volatile boolean exactCounting = true;
+    /**
+     * The distinct-source sketches of the cells (null if the distinct sources are not counted)
+     */
+    private volatile DistinctSources distinctSources;
+    /**
+     * The sequence numbering the documents without a source id, so that each of them counts as a distinct source -
+     * It starts at random, so that the documents of different clusters or nodes are not taken for the same sources on merging
+     */
+    private final AtomicLong documentSequence = new AtomicLong(ThreadLocalRandom.current().nextLong());
+    /**
+     * The keyword co-occurrence matrix of the categories (null if the co-occurrences are not tracked)
+     */
+    private volatile CooccurrenceMatrix cooccurrence;
+    /**
+     * The lock making the reads consistent - The hits of a document are counted under the shared lock,
+     * so that the exclusive lock of a read waits for the documents in flight and the read never sees a half-counted document
+     */
+    private final ReentrantReadWriteLock consistencyLock = new ReentrantReadWriteLock();
+    protected final Lock documentLock = consistencyLock.readLock();
+    protected final Lock snapshotLock = consistencyLock.writeLock();
+    /**
+     * false until the storage is prepared for the current storage mode
+     */
+    private volatile boolean storagePrepared = false;
 
     /**
      * Default Constructor
@@ -35,7 +166,7 @@ public abstract class Cluster<T> implements ICluster<T>{
      */
     @Deprecated
     public Cluster(){
-        clusteringRawMap = new ConcurrentHashMap<>();
+        clusteringRawMap = new LongObjectMap<>();
     }
 
     /**
@@ -72,36 +203,155 @@ public abstract class Cluster<T> implements ICluster<T>{
         this.dataSources.add(dataSource);
     }
 
-    protected static String generateCategoryKey(String category, String detail, String keyword){
-        return String.format("%s-[CLUSTER_KEY]-$s-%s", category, detail, keyword);
+    /**
+     * A method for generating the key of a cell from the names of its terms. The names are space-flushed and synonyms are resolved into their canonical terms.
+     * @param category Category name
+     * @param detail Detail Category name
+     * @param keyword Keyword
+     * @return The packed key (NO_KEY if a term is not in the target or has not the role of its position)
+     */
+    protected long generateCategoryKey(String category, String detail, String keyword){
+        final TermDictionary dictionary = this.target.getDictionary();
+        final int categoryId = dictionary.id(Target.TargetBuilder.flushSpaces(category));
+        final int detailId = dictionary.id(Target.TargetBuilder.flushSpaces(detail));
+        final int keywordId = dictionary.id(Target.TargetBuilder.flushSpaces(keyword));
+        if(categoryId == TermDictionary.NONE || detailId == TermDictionary.NONE || keywordId == TermDictionary.NONE) return NO_KEY;
+        final int c = dictionary.canonical(categoryId), d = dictionary.canonical(detailId), k = dictionary.canonical(keywordId);
+        return isCell(c, d, k) ? CellKey.pack(c, d, k) : NO_KEY;
+    }
+
+    /**
+     * A method for checking if the term ids address a cell in every storage mode - The category and the keyword must have their roles
+     * and the detail must be a detail or the none-categorized placeholder, which is the space of the dense tensor as well
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @return true if the ids address a cell
+     */
+    private boolean isCell(int category, int detail, int keyword){
+        final TermDictionary dictionary = this.target.getDictionary();
+        final int size = dictionary.size();
+        if(category < 0 || detail < 0 || keyword < 0 || category >= size || detail >= size || keyword >= size) return false;
+        if(!dictionary.isLive(category) || !dictionary.isLive(detail) || !dictionary.isLive(keyword)) return false;
+        return (this.target.getRoles(category) & FlagState.CATEGORY.mask()) != 0
+                && (detail == this.target.getNotCategorizedId() || (this.target.getRoles(detail) & FlagState.DETAIL.mask()) != 0)
+                && (this.target.getRoles(keyword) & FlagState.KEYWORD.mask()) != 0;
     }
 
-    public Iterator<String> iteratorForData(){
-        return this.clusteringRawMap.keySet().iterator();
+    /**
+     * A method for iterating the keys of the cells
+     * @return The iterator of the packed keys (Refer CellKey for unpacking the term ids)
+     */
+    public PrimitiveIterator.OfLong iteratorForData(){
+        this.snapshotLock.lock();
+        try{
+            flushPartials();
+            final DenseCountTensor tensor = this.countTensor;
+            if(tensor != null){
+                final List<Long> keys = new ArrayList<>();
+                tensor.forEach((category, detail, keyword, count) -> keys.add(CellKey.pack(category, detail, keyword)));
+                return keys.stream().mapToLong(Long::longValue).iterator();
+            }
+            return Arrays.stream(this.clusteringRawMap.keys()).iterator();
+        }finally {
+            this.snapshotLock.unlock();
+        }
     }
 
     /**
-     * A method to put the clustered result with category and detail category name
+     * A method to put the clustered result with category and detail category name (Thread-Safe)
      * @param category Category name
      * @param detail Detail Category name
+     * @apiNote The cell is created atomically once and its counters are striped, so concurrent calls never lose an increment
+     * @return put Data
+     * @throws IllegalArgumentException when a term is not in the target or has not the role of its position
+     */
+    public ClusteringRaw putData(String category, String detail, String keyword) throws IllegalArgumentException{
+        final long key = generateCategoryKey(category, detail, keyword);
+        if(key == NO_KEY){
+            throw new IllegalArgumentException(String.format("[%s, %s, %s] do not address a cell of the target", category, detail, keyword));
+        }
+        return putData(CellKey.category(key), CellKey.detail(key), CellKey.keyword(key));
+    }
+
+    /**
+     * A method to put the clustered result with term ids of the target (Thread-Safe)
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @apiNote The lookup of an existing cell neither locks nor allocates. In the dense and sketch modes the cell is a copy
+     *          with the current count of the storage, which is read without waiting for the documents in flight,
+     *          so this method never takes the exclusive lock and may be called while holding documentLock
      * @return put Data
+     * @throws IllegalArgumentException when a term has not the role of its position - The ids are rejected in every storage mode
+     */
+    public ClusteringRaw putData(int category, int detail, int keyword) throws IllegalArgumentException{
+        if(!isCell(category, detail, keyword)){
+            throw new IllegalArgumentException(String.format("The term ids [%d, %d, %d] do not address a cell of the target", category, detail, keyword));
+        }
+        trackHeavyHitter(category, detail, keyword, 1);
+        final CountMinSketch sketch = this.countSketch;
+        if(sketch != null){
+            final long key = CellKey.pack(category, detail, keyword);
+            sketch.add(key, 1);
+            return materialize(category, detail, keyword, sketch.estimate(key));
+        }
+        final DenseCountTensor tensor = this.countTensor;
+        if(tensor != null){
+            tensor.add(category, detail, keyword, 1);
+            return materialize(category, detail, keyword, tensor.get(category, detail, keyword));
+        }
+        return putSparse(category, detail, keyword, 1);
+    }
+
+    /**
+     * A method to count a hit of a cell with term ids of the target without materializing the cell (Thread-Safe)
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     */
+    protected void accumulate(int category, int detail, int keyword){
+        if(this.aggregationStrategy == AggregationStrategy.PARTIAL){
+            final PartialAggregate partial = this.partials.get();
+            /**
+             * The worker merges its own table at the flush points, so the table is never read by another thread meanwhile
+             */
+            if(partial.add(CellKey.pack(category, detail, keyword)) >= this.flushInterval) merge(partial);
+            return;
+        }
+        addCount(category, detail, keyword, 1);
+    }
+
+    /**
+     * A method to count a hit of a cell at an event time - The hit is also counted in the window when the windowed mode is enabled (Thread-Safe)
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @param timestamp The event time in milliseconds
+     */
+    protected void accumulate(int category, int detail, int keyword, long timestamp){
+        accumulate(category, detail, keyword);
+        final WindowedCounts window = this.windowedCounts;
+        if(window != null) window.add(CellKey.pack(category, detail, keyword), timestamp, 1);
+    }
+
+    /**
+     * A method for adding hits to a cell of the sparse map, creating the cell atomically when it is absent (Thread-Safe)
+     * @return The cell
      */
-    public ClusteringRaw putData(String category, String detail, String keyword){
-        final String key = generateCategoryKey(category, detail, keyword);
-        final ClusteringRaw clusterData;
-        if(this.clusteringRawMap.containsKey(key)){
-            clusterData = this.clusteringRawMap.get(key);
-            int count = clusterData.getCount();
-            clusterData.setCount(count + 1);
-        }else{
-            clusterData = new ClusteringRaw();
-            clusterData.setCategory(category);
-            clusterData.setDetailCategory(detail);
-            clusterData.addKeyword(keyword);
-            clusterData.setCount(1);
-            this.clusteringRawMap.put(key, clusterData);
-        }
-        clusterData.addKeyword(keyword);
+    private ClusteringRaw putSparse(int category, int detail, int keyword, long hits){
+        final long key = CellKey.pack(category, detail, keyword);
+        ClusteringRaw clusterData = this.clusteringRawMap.get(key);
+        if(clusterData == null){
+            clusterData = this.clusteringRawMap.computeIfAbsent(key, k -> {
+                /**
+                 * The mapping is called once per cell, so the cell is indexed exactly once
+                 */
+                this.cellIndex.add(k);
+                return new ClusteringRaw(this.target.getTerm(category), this.target.getTerm(detail), this.target.getTerm(keyword));
+            });
+        }
+        clusterData.addCount(hits);
         return clusterData;
     }
 
@@ -112,7 +362,716 @@ public abstract class Cluster<T> implements ICluster<T>{
      * @return Clustered data
      */
     public ClusteringRaw getData(String category, String detail, String keyword) throws NullPointerException{
-        return this.clusteringRawMap.get(generateCategoryKey(category, detail, keyword));
+        final long key = generateCategoryKey(category, detail, keyword);
+        return key == NO_KEY ? null : getData(CellKey.category(key), CellKey.detail(key), CellKey.keyword(key));
+    }
+
+    /**
+     * A method to take a single data unit with term ids of the target (Thread-Safe)
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @apiNote A single cell is read without the exclusive lock, so the reads never stall the documents in flight.
+     *          The count is the hits counted into the storage so far - A document in flight may be counted partly,
+     *          and in PARTIAL strategy the hits pending in the partial tables appear after the next flush point. In sketch mode the count is an estimate
+     * @return A snapshot of the clustered data (null if the cell is absent)
+     */
+    public ClusteringRaw getData(int category, int detail, int keyword){
+        final long key = CellKey.pack(category, detail, keyword);
+        final CountMinSketch sketch = this.countSketch;
+        if(sketch != null){
+            final long count = sketch.estimate(key);
+            return count == 0 ? null : withSources(materialize(category, detail, keyword, count), key);
+        }
+        final DenseCountTensor tensor = this.countTensor;
+        if(tensor != null){
+            final long count = tensor.get(category, detail, keyword);
+            return count == 0 ? null : withSources(materialize(category, detail, keyword, count), key);
+        }
+        final ClusteringRaw raw = this.clusteringRawMap.get(key);
+        return raw == null ? null : withSources(new ClusteringRaw(raw), key);
+    }
+
+    /**
+     * A method for creating the cell object of a counted cell of the tensor
+     */
+    private ClusteringRaw materialize(int category, int detail, int keyword, long count){
+        final ClusteringRaw raw = new ClusteringRaw(this.target.getTerm(category), this.target.getTerm(detail), this.target.getTerm(keyword));
+        raw.addCount(count);
+        return raw;
+    }
+
+    /**
+     * A method for attaching a copy of the distinct-source sketch of a cell to a copied cell
+     * @return The copied cell
+     */
+    private ClusteringRaw withSources(ClusteringRaw raw, long key){
+        final DistinctSources sources = this.distinctSources;
+        if(sources == null) return raw;
+        final HyperLogLog sketch = sources.copyOf(key);
+        if(sketch != null) raw.setDistinctSources(sketch);
+        return raw;
+    }
+
+    /**
+     * A method for counting the co-occurrences of the keywords of a document in its category when the tracking is enabled (Thread-Safe)
+     * @param category Category id
+     * @param keywords Distinct keyword ids in ascending order
+     * @param size The number of keywords in the array
+     */
+    protected void accumulatePairs(int category, int[] keywords, int size){
+        final CooccurrenceMatrix matrix = this.cooccurrence;
+        if(matrix != null && size > 1) matrix.addAll(category, keywords, size);
+    }
+
+    /**
+     * A method for enabling the keyword co-occurrence tracking - Each category counts the documents containing each pair of keywords.
+     * The former co-occurrences are discarded.
+     * @param enabled true for tracking the co-occurrences
+     */
+    public void setCooccurrenceTracking(boolean enabled){
+        this.snapshotLock.lock();
+        try{
+            this.cooccurrence = enabled ? new CooccurrenceMatrix() : null;
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    public boolean isTrackingCooccurrence(){
+        return this.cooccurrence != null;
+    }
+
+    /**
+     * A method to take the number of documents of a category containing both keywords (Thread-Safe)
+     * @param category Category Name
+     * @param keyword Keyword
+     * @param other The other keyword
+     * @return The count (0 if the pair never co-occurred or a term is not in the target)
+     * @throws IllegalStateException when the co-occurrences are not tracked
+     */
+    public long getCooccurrence(String category, String keyword, String other) throws IllegalStateException{
+        final CooccurrenceMatrix matrix = checkedCooccurrence();
+        final int categoryId = canonicalIdOf(category), keywordId = canonicalIdOf(keyword), otherId = canonicalIdOf(other);
+        if(categoryId == TermDictionary.NONE || keywordId == TermDictionary.NONE || otherId == TermDictionary.NONE) return 0;
+        this.snapshotLock.lock();
+        try{
+            return matrix.get(categoryId, keywordId, otherId);
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * A method to take the most frequent keyword pairs of a category (Thread-Safe)
+     * @param category Category Name
+     * @param k The largest number of pairs. e.g) 20
+     * @return The pairs in descending order of count
+     * @throws IllegalStateException when the co-occurrences are not tracked
+     */
+    public List<KeywordPair> getTopPairs(String category, int k) throws IllegalStateException{
+        return topPairs(category, null, k);
+    }
+
+    /**
+     * A method to take the keywords co-occurring most frequently with a keyword in a category (Thread-Safe)
+     * @param category Category Name
+     * @param keyword Keyword - It is the first keyword of every pair taken
+     * @param k The largest number of pairs
+     * @return The pairs in descending order of count
+     * @throws IllegalStateException when the co-occurrences are not tracked
+     */
+    public List<KeywordPair> getTopPairs(String category, String keyword, int k) throws IllegalStateException{
+        return topPairs(category, keyword, k);
+    }
+
+    private List<KeywordPair> topPairs(String category, String keyword, int k){
+        final CooccurrenceMatrix matrix = checkedCooccurrence();
+        final List<KeywordPair> toRet = new ArrayList<>();
+        final int categoryId = canonicalIdOf(category);
+        final int keywordId = keyword == null ? TermDictionary.NONE : canonicalIdOf(keyword);
+        if(categoryId == TermDictionary.NONE || (keyword != null && keywordId == TermDictionary.NONE)) return toRet;
+        this.snapshotLock.lock();
+        try{
+            matrix.forEachTop(categoryId, keywordId, k, (key, count) -> {
+                int first = CellKey.detail(key), second = CellKey.keyword(key);
+                if(second == keywordId){
+                    second = first;
+                    first = keywordId;
+                }
+                toRet.add(new KeywordPair(this.target.getTerm(categoryId), this.target.getTerm(first), this.target.getTerm(second), count));
+            });
+        }finally {
+            this.snapshotLock.unlock();
+        }
+        return toRet;
+    }
+
+    private CooccurrenceMatrix checkedCooccurrence() throws IllegalStateException{
+        final CooccurrenceMatrix matrix = this.cooccurrence;
+        if(matrix == null) throw new IllegalStateException("The co-occurrences are not tracked. Call setCooccurrenceTracking first.");
+        return matrix;
+    }
+
+    /**
+     * A method for resolving the canonical id of a name
+     * @return The term id (TermDictionary.NONE if the name is not a term of the target)
+     */
+    private int canonicalIdOf(String name){
+        final TermDictionary dictionary = this.target.getDictionary();
+        final int id = dictionary.id(Target.TargetBuilder.flushSpaces(name));
+        return id == TermDictionary.NONE ? id : dictionary.canonical(id);
+    }
+
+    /**
+     * A method for computing the hash of the source of a document
+     * @param sourceId The source id of the document (null if the document is a distinct source by itself)
+     * @return The 64-bit hash offered to the distinct-source sketches
+     */
+    protected long sourceHashOf(String sourceId){
+        return sourceId == null ? HyperLogLog.hash(this.documentSequence.incrementAndGet()) : HyperLogLog.hash(sourceId);
+    }
+
+    /**
+     * A method for offering the source of a document to the distinct-source sketch of a cell (Thread-Safe)
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @param sourceHash The hash of the source (Refer sourceHashOf())
+     */
+    protected void offerSource(int category, int detail, int keyword, long sourceHash){
+        final DistinctSources sources = this.distinctSources;
+        if(sources != null) sources.offer(CellKey.pack(category, detail, keyword), sourceHash);
+    }
+
+    /**
+     * A method for retrieving the event time of a document clustered now
+     * @return The current time in windowed mode (0 otherwise)
+     */
+    protected long eventTime(){
+        return isWindowed() ? System.currentTimeMillis() : 0L;
+    }
+
+    /**
+     * A method for enabling the distinct-source counting - Each cell keeps a HyperLogLog sketch of the sources of the documents contributing to it,
+     * so that a single source repeating a keyword does not look like many. The former sketches are discarded.
+     * @param precision The precision of the sketches (0 disables the counting) - Each cell takes 2^precision bytes. e.g) DEFAULT_DISTINCT_PRECISION
+     * @apiNote The sketches are kept per cell apart from the storage of the counts, so they grow with the number of distinct cells
+     *          in every storage mode. In sketch mode they are not bounded by the dimensions of the count sketch
+     * @throws IllegalArgumentException when the precision is neither 0 nor in the range of HyperLogLog
+     */
+    public void setDistinctPrecision(int precision) throws IllegalArgumentException{
+        final DistinctSources sources = precision == 0 ? null : new DistinctSources(precision);
+        this.snapshotLock.lock();
+        try{
+            this.distinctSources = sources;
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    public int getDistinctPrecision() {
+        final DistinctSources sources = this.distinctSources;
+        return sources == null ? 0 : sources.getPrecision();
+    }
+
+    public boolean isCountingDistinct(){
+        return this.distinctSources != null;
+    }
+
+    /**
+     * A method for adding several hits to a cell of the shared storage (Thread-Safe)
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @param hits The number of hits
+     */
+    protected void addCount(int category, int detail, int keyword, long hits){
+        trackHeavyHitter(category, detail, keyword, hits);
+        if(!this.exactCounting) return;
+        final CountMinSketch sketch = this.countSketch;
+        if(sketch != null){
+            sketch.add(CellKey.pack(category, detail, keyword), hits);
+            return;
+        }
+        final DenseCountTensor tensor = this.countTensor;
+        if(tensor != null) tensor.add(category, detail, keyword, hits);
+        else putSparse(category, detail, keyword, hits);
+    }
+
+    /**
+     * A method for counting hits of a cell in the heavy-hitter summary of its category when the summaries are enabled (Thread-Safe)
+     */
+    private void trackHeavyHitter(int category, int detail, int keyword, long hits){
+        final int capacity = this.heavyHitterCapacity;
+        if(capacity == 0) return;
+        final SpaceSaving summary = this.heavyHitters.computeIfAbsent(category, k -> new SpaceSaving(capacity));
+        synchronized (summary){
+            summary.add(CellKey.pack(category, detail, keyword), hits);
+        }
+    }
+
+    private PartialAggregate registerPartial(){
+        final PartialAggregate partial = new PartialAggregate();
+        this.partialRegistry.add(partial);
+        return partial;
+    }
+
+    /**
+     * A method for merging a partial table into the shared storage and resetting it
+     * @param partial The partial table (Must not be written by another thread meanwhile)
+     */
+    private void merge(PartialAggregate partial){
+        if(partial.pending == 0) return;
+        partial.cells.forEach((key, hits) -> addCount(CellKey.category(key), CellKey.detail(key), CellKey.keyword(key), hits));
+        partial.reset();
+    }
+
+    /**
+     * A method for merging the partial tables of every worker into the shared storage - make() and every read call this method.
+     * The documents in flight are waited for, since the partial tables are not synchronized.
+     * The table of a terminated worker is merged for the last time and removed from the registry with its memory
+     */
+    protected void flushPartials(){
+        this.snapshotLock.lock();
+        try{
+            final Iterator<PartialAggregate> iterator = this.partialRegistry.iterator();
+            while(iterator.hasNext()){
+                final PartialAggregate partial = iterator.next();
+                /**
+                 * The termination of the owner happens-before isAlive() returning false, so every hit of a dead owner is visible here
+                 */
+                final boolean retired = !partial.owner.isAlive();
+                merge(partial);
+                if(retired) iterator.remove();
+            }
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * A method for preparing the storage backend before making - The dense tensor is allocated when the dense mode is requested,
+     * the tensor fits in the memory budget and no cell is stored yet. A tensor of a former dictionary of the target is spilled into the sparse map.
+     */
+    protected void prepareStorage(){
+        this.snapshotLock.lock();
+        try{
+            prepareStorageExclusively();
+            this.storagePrepared = true;
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * A method for preparing the storage backend before clustering a stream of documents - The storage is prepared once,
+     * and again when the storage mode or the dictionary of the target has changed
+     */
+    protected void ensureStorage(){
+        final DenseCountTensor tensor = this.countTensor;
+        if(!this.storagePrepared || (tensor != null && tensor.getDictionary() != this.target.getDictionary())) prepareStorage();
+    }
+
+    /**
+     * The preparation of the storage (Must be called under the exclusive lock)
+     */
+    private void prepareStorageExclusively(){
+        if(this.clusteringRawMap == null) this.clusteringRawMap = new LongObjectMap<>();
+        flushPartials();
+        if(this.countSketch != null && this.storageMode != StorageMode.SKETCH){
+            /**
+             * The approximate counts cannot be turned into cells
+             */
+            if(isDebug()){
+                System.err.println(Thread.currentThread().getName() + " - " + "[Cluster] Discarding the count sketch. The cells are counted from zero.");
+            }
+            this.countSketch = null;
+        }
+        if(this.storageMode == StorageMode.SKETCH){
+            if(this.countSketch == null) this.countSketch = foldIntoSketch();
+            return;
+        }
+        DenseCountTensor tensor = this.countTensor;
+        if(tensor != null && (this.storageMode != StorageMode.DENSE || tensor.getDictionary() != this.target.getDictionary())){
+            if(isDebug()){
+                System.err.println(Thread.currentThread().getName() + " - " + "[Cluster] Spilling the count tensor into the sparse map.");
+            }
+            tensor.forEach((category, detail, keyword, count) -> putSparse(category, detail, keyword, count));
+            this.countTensor = null;
+            return;
+        }
+        if(tensor == null && this.storageMode == StorageMode.DENSE && this.clusteringRawMap.isEmpty()){
+            final long bytes = DenseCountTensor.bytesOf(this.target);
+            if(bytes > this.denseMemoryBudget || bytes > (Integer.MAX_VALUE - 8) * (long) Long.BYTES){
+                if(isDebug()){
+                    System.err.println(Thread.currentThread().getName() + " - " + String.format("[Cluster] The count tensor needs %d bytes over the budget %d. Falling back to the sparse map.", bytes, this.denseMemoryBudget));
+                }
+                return;
+            }
+            this.countTensor = new DenseCountTensor(this.target);
+        }
+    }
+
+    /**
+     * A method for creating the count sketch with the cells counted so far - The cells are released afterwards
+     * @return The sketch
+     */
+    private CountMinSketch foldIntoSketch(){
+        final CountMinSketch sketch = new CountMinSketch(this.sketchWidth, this.sketchDepth);
+        final DenseCountTensor tensor = this.countTensor;
+        if(tensor != null){
+            tensor.forEach((category, detail, keyword, count) -> sketch.add(CellKey.pack(category, detail, keyword), count));
+            this.countTensor = null;
+        }
+        this.clusteringRawMap.forEach((key, raw) -> sketch.add(key, raw.getLongCount()));
+        this.clusteringRawMap.clear();
+        this.cellIndex.clear();
+        return sketch;
+    }
+
+    /**
+     * A method to take the approximate count of a cell with its error bound (Thread-Safe)
+     * @param category Category Name
+     * @param detail Detail Category Name
+     * @param keyword Keyword
+     * @return The estimate (The error bound is 0 for the exact modes)
+     */
+    public CountEstimate getEstimate(String category, String detail, String keyword){
+        final long key = generateCategoryKey(category, detail, keyword);
+        if(key == NO_KEY) return new CountEstimate(category, detail, keyword, 0, 0, 1);
+        final ClusteringRaw raw = getData(CellKey.category(key), CellKey.detail(key), CellKey.keyword(key));
+        final long count = raw == null ? 0 : raw.getLongCount();
+        final CountMinSketch sketch = this.countSketch;
+        if(sketch == null) return new CountEstimate(category, detail, keyword, count, 0, 1);
+        return new CountEstimate(category, detail, keyword, count, sketch.getErrorBound(), sketch.getConfidence());
+    }
+
+    /**
+     * A method to check if the cells are counted approximately by the count sketch
+     * @return true in sketch mode
+     */
+    public boolean isSketch(){
+        return this.countSketch != null;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    /**
+     * A method for setting the dimensions of the count sketch - They take effect when the sketch is created on the next make()
+     * @param width The number of counters per row - The error bound is e / width of the total hits
+     * @param depth The number of rows - The confidence of the error bound is 1 - e^-depth
+     * @throws IllegalArgumentException when a dimension is not positive
+     */
+    public void setSketchDimensions(int width, int depth) throws IllegalArgumentException{
+        if(width < 1 || depth < 1) throw new IllegalArgumentException(String.format("The sketch of %d x %d counters is not valid.", width, depth));
+        this.sketchWidth = width;
+        this.sketchDepth = depth;
+    }
+
+    /**
+     * A method for enabling the windowed mode - Every cell keeps the counts of the last buckets besides its total count.
+     * The former window is discarded.
+     * @param buckets The number of buckets kept per cell. e.g) 60
+     * @param bucketMillis The length of a bucket in milliseconds. e.g) 60000
+     * @apiNote Every cell hit in the window keeps a ring of the buckets, so the window grows with the number of distinct cells in every storage mode.
+     *          In sketch mode it is not bounded by the dimensions of the count sketch
+     * @throws IllegalArgumentException when a parameter is not positive
+     */
+    public void setWindow(int buckets, long bucketMillis) throws IllegalArgumentException{
+        final WindowedCounts window = new WindowedCounts(buckets, bucketMillis);
+        this.snapshotLock.lock();
+        try{
+            this.windowedCounts = window;
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * A method for disabling the windowed mode
+     */
+    public void disableWindow(){
+        this.snapshotLock.lock();
+        try{
+            this.windowedCounts = null;
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    public boolean isWindowed(){
+        return this.windowedCounts != null;
+    }
+
+    public WindowedCounts getWindowedCounts() {
+        return windowedCounts;
+    }
+
+    /**
+     * A method to take a single data unit counted over the last buckets of the sliding window ending at the latest event (Thread-Safe)
+     * @param category Category Name
+     * @param detail Detail Category Name
+     * @param keyword Keyword
+     * @param lastBuckets The number of buckets
+     * @return Clustered data of the window (null if the cell has no hit in the window)
+     * @throws IllegalStateException when the windowed mode is disabled
+     */
+    public ClusteringRaw getWindowedData(String category, String detail, String keyword, int lastBuckets) throws IllegalStateException{
+        final WindowedCounts window = checkedWindow();
+        final long key = generateCategoryKey(category, detail, keyword);
+        if(key == NO_KEY) return null;
+        this.snapshotLock.lock();
+        try{
+            final long count = window.count(key, lastBuckets);
+            return count == 0 ? null : materialize(CellKey.category(key), CellKey.detail(key), CellKey.keyword(key), count);
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * A method to take entire data counted over the last buckets of the sliding window ending at the latest event (Thread-Safe)
+     * @param lastBuckets The number of buckets
+     * @return Clustered data of the window
+     * @throws IllegalStateException when the windowed mode is disabled
+     */
+    public List<ClusteringRaw> asWindowedList(int lastBuckets) throws IllegalStateException{
+        final WindowedCounts window = checkedWindow();
+        window.checkedBuckets(lastBuckets);
+        this.snapshotLock.lock();
+        try{
+            final long to = window.getClock();
+            return windowedList(window, to - lastBuckets + 1, to);
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * A method to take entire data counted over the current tumbling window - Tumbling windows of windowBuckets are aligned to the epoch
+     * and the current one is the window enclosing the latest event (Thread-Safe)
+     * @param windowBuckets The number of buckets per tumbling window
+     * @return Clustered data of the current tumbling window
+     * @throws IllegalStateException when the windowed mode is disabled
+     */
+    public List<ClusteringRaw> asTumblingList(int windowBuckets) throws IllegalStateException{
+        final WindowedCounts window = checkedWindow();
+        window.checkedBuckets(windowBuckets);
+        this.snapshotLock.lock();
+        try{
+            final long to = window.getClock();
+            return windowedList(window, Math.floorDiv(to, windowBuckets) * windowBuckets, to);
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * A method to take entire data counted over the last buckets of the sliding window as mapped state (Thread-Safe)
+     * @param lastBuckets The number of buckets
+     * @return all mapped clustered data of the window
+     * @throws IllegalStateException when the windowed mode is disabled
+     */
+    public List<T> takeWindow(int lastBuckets) throws IllegalStateException{
+        final List<T> toRet = new Vector<>();
+        for(ClusteringRaw raw : asWindowedList(lastBuckets)) toRet.add(map(raw));
+        return toRet;
+    }
+
+    private List<ClusteringRaw> windowedList(WindowedCounts window, long fromBucket, long toBucket){
+        final List<ClusteringRaw> toRet = new Vector<>();
+        window.forEach(fromBucket, toBucket, (key, count) -> toRet.add(materialize(CellKey.category(key), CellKey.detail(key), CellKey.keyword(key), count)));
+        return toRet;
+    }
+
+    private WindowedCounts checkedWindow() throws IllegalStateException{
+        final WindowedCounts window = this.windowedCounts;
+        if(window == null) throw new IllegalStateException("The windowed mode is disabled. Call setWindow first.");
+        return window;
+    }
+
+    /**
+     * A method for enabling the heavy-hitter summaries - Each category keeps a Space-Saving summary of its cells with a fixed number of counters,
+     * so that the top cells of a category are found without scanning every cell. The former summaries are discarded.
+     * @param capacity The number of counters per category (0 disables the summaries). e.g) 1000 for the top 20
+     * @apiNote The count of a cell in a summary overestimates the true count by at most (the hits of the category / capacity)
+     * @throws IllegalArgumentException when the capacity is negative
+     */
+    public void setHeavyHitterCapacity(int capacity) throws IllegalArgumentException{
+        if(capacity < 0) throw new IllegalArgumentException("The capacity must not be negative : " + capacity);
+        this.snapshotLock.lock();
+        try{
+            flushPartials();
+            this.heavyHitters.clear();
+            this.heavyHitterCapacity = capacity;
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    public int getHeavyHitterCapacity() {
+        return heavyHitterCapacity;
+    }
+
+    /**
+     * A method for choosing whether the cells are counted exactly besides the heavy-hitter summaries
+     * @param exactCounting false for counting the cells only by the summaries with bounded memory -
+     *                      The exact reads such as getData() and asList() see no cell counted meanwhile then
+     */
+    public void setExactCounting(boolean exactCounting) {
+        this.snapshotLock.lock();
+        try{
+            flushPartials();
+            this.exactCounting = exactCounting;
+        }finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    public boolean isExactCounting() {
+        return exactCounting;
+    }
+
+    /**
+     * A method to take the heavy hitters of a category with their error bounds (Thread-Safe)
+     * @param category Category Name
+     * @param k The largest number of cells to take. e.g) 20
+     * @return The cells of the largest estimated counts in descending order (Empty if the category has no hit)
+     * @throws IllegalStateException when the heavy-hitter summaries are disabled
+     */
+    public List<HeavyHitter> getHeavyHitters(String category, int k) throws IllegalStateException{
+        if(this.heavyHitterCapacity == 0) throw new IllegalStateException("The heavy-hitter summaries are disabled. Call setHeavyHitterCapacity first.");
+        final List<HeavyHitter> toRet = new ArrayList<>();
+        final TermDictionary dictionary = this.target.getDictionary();
+        final int categoryId = dictionary.id(Target.TargetBuilder.flushSpaces(category));
+        if(categoryId == TermDictionary.NONE) return toRet;
+        this.snapshotLock.lock();
+        try{
+            flushPartials();
+            final SpaceSaving summary = this.heavyHitters.get(dictionary.canonical(categoryId));
+            if(summary == null) return toRet;
+            summary.forEachTop(k, (key, count, error, guaranteed) -> toRet.add(new HeavyHitter(
+                    this.target.getTerm(CellKey.category(key)), this.target.getTerm(CellKey.detail(key)), this.target.getTerm(CellKey.keyword(key)), count, error, guaranteed)));
+        }finally {
+            this.snapshotLock.unlock();
+        }
+        return toRet;
+    }
+
+    /**
+     * A method to take the heavy hitters of a category as mapped state with their estimated counts (Thread-Safe)
+     * @param category Category Name
+     * @param k The largest number of cells to take
+     * @return The mapped cells of the largest estimated counts in descending order
+     * @throws IllegalStateException when the heavy-hitter summaries are disabled
+     */
+    public List<T> takeTop(String category, int k) throws IllegalStateException{
+        final List<T> toRet = new Vector<>();
+        for(HeavyHitter hitter : getHeavyHitters(category, k)){
+            final ClusteringRaw raw = new ClusteringRaw(hitter.getCategory(), hitter.getDetailCategory(), hitter.getKeyword());
+            raw.addCount(hitter.getCount());
+            toRet.add(map(raw));
+        }
+        return toRet;
+    }
+
+    /**
+     * A method for taking a snapshot of the cells which can be encoded and merged into other clusters (Thread-Safe)
+     * The distinct-source sketches of the cells are included when the distinct sources are counted
+     * @apiNote The documents in flight are waited for, so the snapshot reflects whole documents only
+     * @return The snapshot
+     * @throws IllegalStateException when the cells cannot be enumerated - in sketch mode, or when the cells are not counted exactly (Refer setExactCounting())
+     */
+    public ClusterSnapshot snapshot() throws IllegalStateException{
+        final ClusterSnapshot.Builder builder = new ClusterSnapshot.Builder();
+        this.snapshotLock.lock();
+        try{
+            flushPartials();
+            if(this.countSketch != null) throw new IllegalStateException("The cells of the count sketch cannot be enumerated for a snapshot.");
+            if(!this.exactCounting) throw new IllegalStateException("The cells are not counted exactly. Call setExactCounting(true) before counting the cells for a snapshot.");
+            final DenseCountTensor tensor = this.countTensor;
+            if(tensor != null){
+                tensor.forEach((category, detail, keyword, count) -> builder.add(this.target.getTerm(category), this.target.getTerm(detail), this.target.getTerm(keyword), count));
+            }else{
+                this.clusteringRawMap.forEach((key, raw) -> builder.add(raw.getCategory(), raw.getDetailCategory(), this.target.getTerm(CellKey.keyword(key)), raw.getLongCount()));
+            }
+            final DistinctSources sources = this.distinctSources;
+            if(sources != null){
+                sources.forEach((key, sketch) -> builder.addSources(this.target.getTerm(CellKey.category(key)), this.target.getTerm(CellKey.detail(key)), this.target.getTerm(CellKey.keyword(key)), sketch));
+            }
+        }finally {
+            this.snapshotLock.unlock();
+        }
+        return builder.build();
+    }
+
+    /**
+     * A method for adding the counts of a snapshot to the cells of this cluster (Thread-Safe)
+     * The terms are resolved by name, so the snapshot may come from another node with the same target.
+     * The distinct-source sketches of the snapshot are merged as well when this cluster counts the distinct sources, so that a source seen by both counts once
+     * @param snapshot The snapshot to merge
+     * @apiNote Merging is associative and commutative, so partial results can be reduced in any order
+     * @throws IllegalArgumentException when a term of the snapshot is not in the target or has not the role of its position in the target,
+     *                                  or when a sketch of the snapshot has another precision than the sketches of this cluster.
+     *                                  Every cell is checked before any is added, so nothing is merged in that case
+     */
+    public void merge(ClusterSnapshot snapshot) throws IllegalArgumentException{
+        final long[] keys = new long[snapshot.size()];
+        final long[] counts = new long[snapshot.size()];
+        final int[] size = {0};
+        snapshot.forEach((category, detail, keyword, count) -> {
+            final long key = generateCategoryKey(category, detail, keyword);
+            if(key == NO_KEY){
+                throw new IllegalArgumentException(String.format("[%s, %s, %s] do not address a cell of the target", category, detail, keyword));
+            }
+            keys[size[0]] = key;
+            counts[size[0]++] = count;
+        });
+        /**
+         * The sketches belong to the cells checked above, so their keys are always found
+         */
+        final List<Long> sourceKeys = new ArrayList<>();
+        final List<HyperLogLog> sketches = new ArrayList<>();
+        snapshot.forEachSources((category, detail, keyword, sources) -> {
+            sourceKeys.add(generateCategoryKey(category, detail, keyword));
+            sketches.add(sources);
+        });
+
+        ensureStorage();
+        this.documentLock.lock();
+        try{
+            final DistinctSources sources = this.distinctSources;
+            if(sources != null){
+                for(HyperLogLog sketch : sketches) sources.checkPrecision(sketch);
+            }
+            for(int i = 0; i < keys.length; i++){
+                addCount(CellKey.category(keys[i]), CellKey.detail(keys[i]), CellKey.keyword(keys[i]), counts[i]);
+            }
+            if(sources == null) return;
+            for(int i = 0; i < sketches.size(); i++) sources.merge(sourceKeys.get(i), sketches.get(i));
+        }finally {
+            this.documentLock.unlock();
+        }
+    }
+
+    /**
+     * A method for adding the cells of another cluster to this cluster (Thread-Safe)
+     * @param other The cluster to merge - It is read with a consistent snapshot and is not modified
+     * @apiNote The other cluster must enumerate its cells, so a cluster in sketch mode or without the exact counting cannot be merged.
+     *          Its snapshot() fails then rather than merging nothing
+     * @throws IllegalArgumentException when a term of the other cluster does not address a cell of the target,
+     *                                  or when the distinct-source sketches of both clusters have different precisions - Nothing is merged in that case
+     * @throws IllegalStateException when the other cluster cannot take a snapshot (Refer snapshot())
+     */
+    public void merge(Cluster<?> other) throws IllegalArgumentException, IllegalStateException{
+        merge(other.snapshot());
     }
 
     public Target getTarget() {
@@ -131,26 +1090,190 @@ public abstract class Cluster<T> implements ICluster<T>{
         this.dataSources = dataSources;
     }
 
+    /**
+     * A method to take entire data as mapped state (Thread-Safe)
+     * @apiNote Each cell is mapped as it is materialized, so no intermediate list of raw cells is kept
+     * @return all mapped clustered data
+     */
     @Override
     public List<T> takeAll(){
-        List<T> toRet = new Vector<>();
-        Iterator<String> iterator = clusteringRawMap.keySet().iterator();
-        while(iterator.hasNext()){
-            toRet.add(map(clusteringRawMap.get(iterator.next())));
+        return stream().collect(Collectors.toCollection(Vector::new));
+    }
+
+    /**
+     * A method to take entire data as a lazy stream of mapped state (Thread-Safe)
+     * @apiNote Refer rawStream()
+     * @return The sequential stream of mapped clustered data
+     */
+    @Override
+    public Stream<T> stream(){
+        return rawStream().map(this::map);
+    }
+
+    /**
+     * A method to take entire data as a lazy stream of mapped state (Thread-Safe)
+     * @param parallel true for a parallel stream - map() is called from the worker threads then
+     * @return The stream of mapped clustered data
+     */
+    public Stream<T> stream(boolean parallel){
+        return rawStream(parallel).map(this::map);
+    }
+
+    /**
+     * A method to take entire data as a lazy stream of raw state (Thread-Safe)
+     * @apiNote The stream reads a consistent snapshot taken on this call, which holds only the key and the count of each cell.
+     * A cell object is created as the stream reaches it, so a stream limited or filtered by the caller never creates the others.
+     * The distinct-source sketches are copied with the snapshot, so the cells created later do not follow the sources counted meanwhile
+     * @return The sequential stream of raw clustered data
+     */
+    @Override
+    public Stream<ClusteringRaw> rawStream(){
+        return rawStream(false);
+    }
+
+    /**
+     * A method to take entire data as a lazy stream of raw state (Thread-Safe)
+     * @param parallel true for a parallel stream - The snapshot splits evenly by index
+     * @return The stream of raw clustered data
+     */
+    public Stream<ClusteringRaw> rawStream(boolean parallel){
+        final CellCopy cells = snapshotCells();
+        final IntStream indices = IntStream.range(0, cells.keys.length);
+        return (parallel ? indices.parallel() : indices).mapToObj(cells::materialize);
+    }
+
+    /**
+     * A method for copying the keys, the counts and the distinct-source sketches of every cell under the exclusive lock
+     * @return The copy (Empty in sketch mode)
+     */
+    private CellCopy snapshotCells(){
+        this.snapshotLock.lock();
+        try{
+            flushPartials();
+            final DenseCountTensor tensor = this.countTensor;
+            final int size = tensor != null ? tensor.size() : this.countSketch != null ? 0 : this.clusteringRawMap.size();
+            final long[] keys = new long[size], counts = new long[size];
+            final int[] position = {0};
+            if(tensor != null){
+                tensor.forEach((category, detail, keyword, count) -> {
+                    keys[position[0]] = CellKey.pack(category, detail, keyword);
+                    counts[position[0]++] = count;
+                });
+            }else if(this.countSketch == null){
+                this.clusteringRawMap.forEach((key, raw) -> {
+                    if(position[0] == size) return;
+                    keys[position[0]] = key;
+                    counts[position[0]++] = raw.getLongCount();
+                });
+            }
+            final int length = position[0];
+            final DistinctSources sources = this.distinctSources;
+            HyperLogLog[] sketches = null;
+            if(sources != null){
+                sketches = new HyperLogLog[length];
+                for(int i = 0; i < length; i++) sketches[i] = sources.copyOf(keys[i]);
+            }
+            return length == size ? new CellCopy(keys, counts, sketches) : new CellCopy(Arrays.copyOf(keys, length), Arrays.copyOf(counts, length), sketches);
+        }finally {
+            this.snapshotLock.unlock();
         }
-        return toRet;
     }
 
+    /**
+     * The cells copied by snapshotCells() - Each cell object is created from the copy as a stream reaches it
+     */
+    private final class CellCopy {
+
+        private final long[] keys, counts;
+        /**
+         * The distinct-source sketch of each cell (null if the distinct sources are not counted)
+         */
+        private final HyperLogLog[] sources;
+
+        private CellCopy(long[] keys, long[] counts, HyperLogLog[] sources){
+            this.keys = keys;
+            this.counts = counts;
+            this.sources = sources;
+        }
+
+        private ClusteringRaw materialize(int index){
+            final long key = this.keys[index];
+            final ClusteringRaw raw = Cluster.this.materialize(CellKey.category(key), CellKey.detail(key), CellKey.keyword(key), this.counts[index]);
+            if(this.sources != null && this.sources[index] != null) raw.setDistinctSources(this.sources[index]);
+            return raw;
+        }
+
+    }
+
+    /**
+     * A method to take entire data as raw state (Thread-Safe)
+     * @apiNote The documents in flight are waited for, so the snapshot reflects whole documents only
+     * @return A snapshot of all raw clustered data
+     */
     @Override
     public List<ClusteringRaw> asList(){
-        List<ClusteringRaw> toRet = new Vector<>();
-        Iterator<String> iterator = clusteringRawMap.keySet().iterator();
-        while(iterator.hasNext()){
-            toRet.add(clusteringRawMap.get(iterator.next()));
+        final List<ClusteringRaw> toRet = new Vector<>();
+        this.snapshotLock.lock();
+        try{
+            flushPartials();
+            final DenseCountTensor tensor = this.countTensor;
+            if(tensor != null){
+                tensor.forEach((category, detail, keyword, count) -> toRet.add(withSources(materialize(category, detail, keyword, count), CellKey.pack(category, detail, keyword))));
+            }else{
+                this.clusteringRawMap.forEach((key, raw) -> toRet.add(withSources(new ClusteringRaw(raw), key)));
+            }
+        }finally {
+            this.snapshotLock.unlock();
+        }
+        return toRet;
+    }
+
+    /**
+     * A method to take the cells of a term as raw state using the secondary indexes (Thread-Safe)
+     * e.g) asList(FlagState.CATEGORY, "서울") for every cell of 서울, asList(FlagState.KEYWORD, "음주") for every cell of 음주
+     * @param role The dimension of the term - CATEGORY, DETAIL or KEYWORD
+     * @param term The term
+     * @apiNote The cost is the size of the result rather than the number of every cell. In dense mode only the slice of the term is scanned.
+     * No cell is taken in sketch mode
+     * @return A snapshot of the clustered data of the term (Empty if the term is not in the target)
+     * @throws IllegalArgumentException when the role is NOTHING
+     */
+    public List<ClusteringRaw> asList(FlagState role, String term) throws IllegalArgumentException{
+        if(role == FlagState.NOTHING) throw new IllegalArgumentException("The cells are not indexed by " + role);
+        final List<ClusteringRaw> toRet = new Vector<>();
+        final int termId = canonicalIdOf(term);
+        if(termId == TermDictionary.NONE) return toRet;
+        this.snapshotLock.lock();
+        try{
+            flushPartials();
+            final DenseCountTensor tensor = this.countTensor;
+            if(tensor != null){
+                tensor.forEach(role, termId, (category, detail, keyword, count) -> toRet.add(withSources(materialize(category, detail, keyword, count), CellKey.pack(category, detail, keyword))));
+            }else if(this.countSketch == null){
+                for(long key : this.cellIndex.keysOf(role, termId)){
+                    final ClusteringRaw raw = this.clusteringRawMap.get(key);
+                    if(raw != null) toRet.add(withSources(new ClusteringRaw(raw), key));
+                }
+            }
+        }finally {
+            this.snapshotLock.unlock();
         }
         return toRet;
     }
 
+    /**
+     * A method to take the cells of a term as mapped state using the secondary indexes (Thread-Safe)
+     * @param role The dimension of the term - CATEGORY, DETAIL or KEYWORD
+     * @param term The term
+     * @return The mapped clustered data of the term
+     * @throws IllegalArgumentException when the role is NOTHING
+     */
+    public List<T> takeAll(FlagState role, String term) throws IllegalArgumentException{
+        final List<T> toRet = new Vector<>();
+        for(ClusteringRaw raw : asList(role, term)) toRet.add(map(raw));
+        return toRet;
+    }
+
     /**
      * A method to check if the keyword in parameter is existing in the keyword set
      * @param str The Keyword to check
@@ -184,31 +1307,41 @@ public abstract class Cluster<T> implements ICluster<T>{
     /**
      * A method to retrieve the category of string in parameter
      * @param detail Detailed category
-     * @apiNote This method is using the linear method that it is highly inefficient
+     * @apiNote This method looks up the reverse index compiled on building the target
      * @return Category Names (This value might be none)
      */
     public Set<String> getCategoryOfDetail(String detail){
-        final Map<String, Set<String>> map = this.target.getCategory();
-        final Iterator<String> keys = map.keySet().iterator();
         final Set<String> categories = new HashSet<>();
-
-        while(keys.hasNext()){
-            final String key = keys.next();
-            final Set<String> currentSet = map.get(key);
-            final Iterator<String> cIterator = currentSet.iterator();
-            while(cIterator.hasNext()){
-                final String now = cIterator.next();
-                if(this.target.isCaseSensitive()){
-                    if(Target.TargetBuilder.flushSpaces(detail).equals(now)) categories.add(key);
-                }else{
-                    if(Target.TargetBuilder.flushSpaces(detail.toLowerCase()).equals(now.toLowerCase())) categories.add(key);
-                }
-            }
+        for(int categoryId : this.target.getCategoriesOfDetail(detail)){
+            categories.add(this.target.getTerm(categoryId));
         }
-
         return categories;
     }
 
+    /**
+     * A method to retrieve the category ids of the detail id in parameter
+     * @param detail Detailed category id
+     * @apiNote This method looks up the reverse index compiled on building the target
+     * @return Ascending category ids (This value might be empty and must not be modified)
+     */
+    public int[] getCategoryOfDetail(int detail){
+        return this.target.getCategoriesOfDetail(detail);
+    }
+
+    /**
+     * A method to find the type of term id in parameter
+     * @param termId The term id to find
+     * @param hintCategory The category id (This parameter must be TermDictionary.NONE if category could not be found yet)
+     * @return FlagState
+     */
+    public FlagState decideWhatItIs(int termId, int hintCategory){
+        final int roles = this.target.getRoles(termId);
+        if((roles & FlagState.CATEGORY.mask()) != 0) return FlagState.CATEGORY;
+        if((roles & FlagState.KEYWORD.mask()) != 0) return FlagState.KEYWORD;
+        if((roles & FlagState.DETAIL.mask()) != 0 && hintCategory != TermDictionary.NONE && this.target.isDetailOf(hintCategory, termId)) return FlagState.DETAIL;
+        return FlagState.NOTHING;
+    }
+
     /**
      * A method to find the type of keyword in parameter
      * @param str The keyword to find
@@ -245,6 +1378,77 @@ public abstract class Cluster<T> implements ICluster<T>{
         return FlagState.NOTHING;
     }
 
+    public MatcherEngine getMatcherEngine() {
+        return matcherEngine;
+    }
+
+    public void setMatcherEngine(MatcherEngine matcherEngine) {
+        this.matcherEngine = matcherEngine;
+    }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * A method for requesting a storage backend - It takes effect on the next make()
+     * @param storageMode The storage mode (DENSE is meant for targets which are not modified while clustering) -
+     *                    The counted cells are folded into the sketch on entering SKETCH, and the sketch is discarded on leaving it
+     * @apiNote SKETCH bounds the memory of the counts only. The window of setWindow() and the sketches of setDistinctPrecision() are kept per cell
+     *          and still grow with the number of distinct cells
+     */
+    public void setStorageMode(StorageMode storageMode) {
+        this.storageMode = storageMode;
+        this.storagePrepared = false;
+    }
+
+    public long getDenseMemoryBudget() {
+        return denseMemoryBudget;
+    }
+
+    /**
+     * A method for setting the largest size of the dense count tensor - The sparse map is used when the tensor of the target is larger
+     * @param denseMemoryBudget The budget in bytes
+     */
+    public void setDenseMemoryBudget(long denseMemoryBudget) {
+        this.denseMemoryBudget = denseMemoryBudget;
+        this.storagePrepared = false;
+    }
+
+    /**
+     * A method to check if the cells are held by the dense count tensor
+     * @return true in dense mode
+     */
+    public boolean isDense(){
+        return this.countTensor != null;
+    }
+
+    public AggregationStrategy getAggregationStrategy() {
+        return aggregationStrategy;
+    }
+
+    /**
+     * A method for choosing how the workers count the cells - In PARTIAL strategy the hits are visible after the next flush point or the end of make()
+     * @param aggregationStrategy The strategy
+     */
+    public void setAggregationStrategy(AggregationStrategy aggregationStrategy) {
+        this.aggregationStrategy = aggregationStrategy;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * A method for setting the flush points of the PARTIAL strategy
+     * @param flushInterval The number of hits a worker counts before merging its partial table
+     * @throws IllegalArgumentException when the interval is not positive
+     */
+    public void setFlushInterval(int flushInterval) throws IllegalArgumentException{
+        if(flushInterval < 1) throw new IllegalArgumentException("The flush interval must be positive : " + flushInterval);
+        this.flushInterval = flushInterval;
+    }
+
     public boolean isDebug() {
         return debug;
     }
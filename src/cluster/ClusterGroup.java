@@ -0,0 +1,129 @@
+package cluster;
+
+import cluster.normalization.matcher.MatcherEngine;
+import source.DataSource;
+import source.IByteDataSource;
+import target.Target;
+import target.TargetGroup;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Class for clustering the same data sources into several clusters with a single scan of each document
+ */
+public class ClusterGroup {
+
+    /**
+     * Cluster instances fed by this group
+     */
+    private final List<SimpleCluster<?>> clusters;
+    /**
+     * The group of the targets of the clusters
+     */
+    private final TargetGroup targetGroup;
+    /**
+     * The index of the target of each cluster in the target group
+     */
+    private final int[] targetIndices;
+    /**
+     * DataSource instances
+     */
+    private List<DataSource> dataSources;
+    /**
+     * The engine of the compiled matcher
+     */
+    private MatcherEngine matcherEngine = MatcherEngine.DOUBLE_ARRAY;
+    /**
+     * Debug Mode Flag
+     */
+    private boolean debug = false;
+
+    /**
+     * Default Use Constructor
+     * @param dataSources datasource instances
+     * @param clusters cluster instances - Clusters may share a target
+     */
+    public ClusterGroup(List<DataSource> dataSources, List<SimpleCluster<?>> clusters){
+        this.dataSources = dataSources;
+        this.clusters = new ArrayList<>(clusters);
+
+        final List<Target> targets = new ArrayList<>();
+        for(SimpleCluster<?> cluster : clusters){
+            if(!containsTarget(targets, cluster.getTarget())) targets.add(cluster.getTarget());
+        }
+        this.targetGroup = new TargetGroup(targets);
+
+        this.targetIndices = new int[clusters.size()];
+        for(int i = 0; i < targetIndices.length; i++) targetIndices[i] = targetGroup.indexOf(clusters.get(i).getTarget());
+    }
+
+    /**
+     * Default Use Constructor
+     * @param dataSources datasource instances
+     * @param clusters cluster instances - Clusters may share a target
+     */
+    public ClusterGroup(List<DataSource> dataSources, SimpleCluster<?>... clusters){
+        this(dataSources, Arrays.asList(clusters));
+    }
+
+    private static boolean containsTarget(List<Target> targets, Target target){
+        for(Target t : targets) if(t == target) return true;
+        return false;
+    }
+
+    /**
+     * A Method for making every cluster of this group - Each document is scanned once for all the targets.
+     * The documents of an IByteDataSource are scanned as UTF-8 bytes without decoding, as SimpleCluster.make() does
+     */
+    public void make(){
+        if(isDebug()){
+            System.err.println(Thread.currentThread().getName() + " - " + "[ClusterGroup] make called. " + clusters.size() + " clusters, " + targetGroup.getTargets().size() + " targets");
+        }
+        for(SimpleCluster<?> cluster : clusters) cluster.prepareStorage();
+        for(DataSource dataSource : this.dataSources){
+            final int[][] normalized = dataSource instanceof IByteDataSource
+                    ? this.targetGroup.normalizeIds(((IByteDataSource) dataSource).takeBytes())
+                    : this.targetGroup.normalizeIds(dataSource.take(), this.matcherEngine);
+            for(int i = 0; i < clusters.size(); i++){
+                final SimpleCluster<?> cluster = clusters.get(i);
+                cluster.cluster(normalized[targetIndices[i]], cluster.eventTime(), dataSource.getSourceId());
+            }
+        }
+        for(SimpleCluster<?> cluster : clusters) cluster.flushPartials();
+    }
+
+    public List<SimpleCluster<?>> getClusters() {
+        return Collections.unmodifiableList(clusters);
+    }
+
+    public TargetGroup getTargetGroup() {
+        return targetGroup;
+    }
+
+    public List<DataSource> getDataSources() {
+        return dataSources;
+    }
+
+    public void setDataSource(List<DataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    public MatcherEngine getMatcherEngine() {
+        return matcherEngine;
+    }
+
+    public void setMatcherEngine(MatcherEngine matcherEngine) {
+        this.matcherEngine = matcherEngine;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    public void setDebug(boolean debug) {
+        this.debug = debug;
+    }
+
+}
@@ -0,0 +1,344 @@
+package cluster;
+
+import cluster.store.HyperLogLog;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An immutable snapshot of the cells of a cluster with a compact binary format for reducing the results of several nodes or threads.
+ * The terms are dictionary-encoded and every number is an unsigned varint. The terms and the cells are sorted, so equal snapshots are encoded into equal bytes.
+ * A cell carries the registers of its distinct-source sketch when the cluster counts the distinct sources (The sketch length is 0 otherwise).
+ * <pre>
+ * magic(3 bytes "TCS") | version(1 byte '2') | term count | (length | UTF-8 bytes) * terms | cell count
+ * | (category | detail | keyword | count | sketch length | precision and registers of HyperLogLog) * cells
+ * </pre>
+ * The snapshots of the version '1' have no sketch fields and are still read.
+ */
+public final class ClusterSnapshot {
+
+    private static final int MAGIC = 0x544353; // "TCS"
+    private static final int VERSION_COUNTS = '1';
+    private static final int VERSION_SOURCES = '2';
+
+    /**
+     * The sorted distinct terms of the cells
+     */
+    private final String[] terms;
+    /**
+     * The term indices of each cell - (category, detail, keyword) triples in sorted order
+     */
+    private final int[] cells;
+    private final long[] counts;
+    /**
+     * The encoded distinct-source sketch of each cell (null if the sources of the cell are not counted)
+     */
+    private final byte[][] sources;
+
+    private ClusterSnapshot(String[] terms, int[] cells, long[] counts, byte[][] sources){
+        this.terms = terms;
+        this.cells = cells;
+        this.counts = counts;
+        this.sources = sources;
+    }
+
+    /**
+     * A Builder collecting the cells of a snapshot
+     */
+    static final class Builder {
+
+        private final Map<List<String>, Long> cells = new HashMap<>();
+        private final Map<List<String>, HyperLogLog> sources = new HashMap<>();
+
+        /**
+         * A method for adding the count of a cell - The counts of the same cell are summed
+         */
+        Builder add(String category, String detail, String keyword, long count){
+            if(count > 0) cells.merge(Arrays.asList(category, detail, keyword), count, Long::sum);
+            return this;
+        }
+
+        /**
+         * A method for adding the distinct-source sketch of a cell - The sketches of the same cell are merged and the sketch of a cell without count is dropped
+         * @throws IllegalArgumentException when the sketches of the same cell have different precisions
+         */
+        Builder addSources(String category, String detail, String keyword, HyperLogLog sketch) throws IllegalArgumentException{
+            final List<String> cell = Arrays.asList(category, detail, keyword);
+            final HyperLogLog merged = sources.get(cell);
+            if(merged == null) sources.put(cell, sketch.copy());
+            else merged.merge(sketch);
+            return this;
+        }
+
+        ClusterSnapshot build(){
+            final SortedSet<String> distinct = new TreeSet<>();
+            for(List<String> cell : cells.keySet()) distinct.addAll(cell);
+            final String[] terms = distinct.toArray(new String[distinct.size()]);
+
+            final List<List<String>> sorted = new ArrayList<>(cells.keySet());
+            sorted.sort((a, b) -> {
+                for(int i = 0; i < 3; i++){
+                    final int compared = a.get(i).compareTo(b.get(i));
+                    if(compared != 0) return compared;
+                }
+                return 0;
+            });
+
+            final int[] indices = new int[sorted.size() * 3];
+            final long[] counts = new long[sorted.size()];
+            final byte[][] sketches = new byte[sorted.size()][];
+            for(int i = 0; i < sorted.size(); i++){
+                for(int j = 0; j < 3; j++) indices[i * 3 + j] = Arrays.binarySearch(terms, sorted.get(i).get(j));
+                counts[i] = cells.get(sorted.get(i));
+                final HyperLogLog sketch = sources.get(sorted.get(i));
+                sketches[i] = sketch == null ? null : sketch.toByteArray();
+            }
+            return new ClusterSnapshot(terms, indices, counts, sketches);
+        }
+    }
+
+    /**
+     * A method for reading a snapshot
+     * @param in The stream positioned at the snapshot
+     * @return The snapshot
+     * @throws IOException when the stream cannot be read or is not a snapshot
+     */
+    public static ClusterSnapshot readFrom(InputStream in) throws IOException{
+        final DataInputStream data = new DataInputStream(in);
+        final int header = data.readInt();
+        final int version = header & 0xFF;
+        if(header >>> 8 != MAGIC || (version != VERSION_COUNTS && version != VERSION_SOURCES)){
+            throw new IOException("The stream is not a cluster snapshot.");
+        }
+
+        final String[] terms = new String[checkedSize(readVarint(data))];
+        for(int i = 0; i < terms.length; i++){
+            final byte[] utf8 = new byte[checkedSize(readVarint(data))];
+            data.readFully(utf8);
+            terms[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        final int size = checkedSize(readVarint(data));
+        final int[] cells = new int[size * 3];
+        final long[] counts = new long[size];
+        final byte[][] sources = new byte[size][];
+        for(int i = 0; i < size; i++){
+            for(int j = 0; j < 3; j++){
+                final long index = readVarint(data);
+                if(index >= terms.length) throw new IOException("The term index " + index + " is out of the dictionary.");
+                cells[i * 3 + j] = (int) index;
+            }
+            counts[i] = readVarint(data);
+            if(version == VERSION_COUNTS) continue;
+            final long length = readVarint(data);
+            if(length == 0) continue;
+            if(length > (1 << HyperLogLog.MAX_PRECISION) + 1) throw new IOException("The sketch of " + length + " bytes is too large.");
+            sources[i] = new byte[(int) length];
+            data.readFully(sources[i]);
+            try{
+                HyperLogLog.fromByteArray(sources[i]);
+            }catch (IllegalArgumentException e){
+                throw new IOException("The sketch of the cell " + i + " is malformed.", e);
+            }
+        }
+        return new ClusterSnapshot(terms, cells, counts, sources);
+    }
+
+    /**
+     * A method for reading a snapshot
+     * @param bytes The encoded snapshot
+     * @return The snapshot
+     * @throws IOException when the bytes are not a snapshot
+     */
+    public static ClusterSnapshot fromByteArray(byte[] bytes) throws IOException{
+        return readFrom(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * A method for writing this snapshot
+     * @param out The stream to write into
+     * @throws IOException when the stream cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException{
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC << 8 | VERSION_SOURCES);
+        writeVarint(data, terms.length);
+        for(String term : terms){
+            final byte[] utf8 = term.getBytes(StandardCharsets.UTF_8);
+            writeVarint(data, utf8.length);
+            data.write(utf8);
+        }
+        writeVarint(data, counts.length);
+        for(int i = 0; i < counts.length; i++){
+            writeVarint(data, cells[i * 3]);
+            writeVarint(data, cells[i * 3 + 1]);
+            writeVarint(data, cells[i * 3 + 2]);
+            writeVarint(data, counts[i]);
+            writeVarint(data, sources[i] == null ? 0 : sources[i].length);
+            if(sources[i] != null) data.write(sources[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * A method for encoding this snapshot
+     * @return The encoded snapshot
+     */
+    public byte[] toByteArray(){
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try{
+            writeTo(out);
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A method for merging snapshots without a cluster - The merge is associative and commutative
+     * @param other The snapshot to merge with
+     * @return A new snapshot summing the counts and merging the distinct-source sketches of both
+     * @throws IllegalArgumentException when the sketches of a cell have different precisions
+     */
+    public ClusterSnapshot merge(ClusterSnapshot other) throws IllegalArgumentException{
+        final Builder builder = new Builder();
+        this.forEach(builder::add);
+        this.forEachSources(builder::addSources);
+        other.forEach(builder::add);
+        other.forEachSources(builder::addSources);
+        return builder.build();
+    }
+
+    /**
+     * A method for visiting every cell
+     * @param visitor The visitor
+     */
+    public void forEach(Visitor visitor){
+        for(int i = 0; i < counts.length; i++){
+            visitor.visit(terms[cells[i * 3]], terms[cells[i * 3 + 1]], terms[cells[i * 3 + 2]], counts[i]);
+        }
+    }
+
+    /**
+     * A method for visiting the distinct-source sketch of every cell having one
+     * @param visitor The visitor - Each sketch is a decoded copy
+     */
+    public void forEachSources(SourcesVisitor visitor){
+        for(int i = 0; i < counts.length; i++){
+            if(sources[i] == null) continue;
+            visitor.visit(terms[cells[i * 3]], terms[cells[i * 3 + 1]], terms[cells[i * 3 + 2]], HyperLogLog.fromByteArray(sources[i]));
+        }
+    }
+
+    /**
+     * A method for retrieving the count of a cell
+     * @return The count (0 if the cell is absent)
+     */
+    public long getCount(String category, String detail, String keyword){
+        final int index = indexOf(category, detail, keyword);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * A method for retrieving the distinct-source sketch of a cell
+     * @return A decoded copy of the sketch (null if the cell is absent or has no sketch)
+     */
+    public HyperLogLog getDistinctSources(String category, String detail, String keyword){
+        final int index = indexOf(category, detail, keyword);
+        return index < 0 || sources[index] == null ? null : HyperLogLog.fromByteArray(sources[index]);
+    }
+
+    /**
+     * A method for finding a cell
+     * @return The index of the cell (-1 if the cell is absent)
+     */
+    private int indexOf(String category, String detail, String keyword){
+        final int c = Arrays.binarySearch(terms, category), d = Arrays.binarySearch(terms, detail), k = Arrays.binarySearch(terms, keyword);
+        if(c < 0 || d < 0 || k < 0) return -1;
+        /**
+         * The terms are sorted, so the index triples of the sorted cells are in ascending order too
+         */
+        int low = 0, high = counts.length - 1;
+        while(low <= high){
+            final int mid = (low + high) >>> 1;
+            int compared = Integer.compare(cells[mid * 3], c);
+            if(compared == 0) compared = Integer.compare(cells[mid * 3 + 1], d);
+            if(compared == 0) compared = Integer.compare(cells[mid * 3 + 2], k);
+            if(compared == 0) return mid;
+            if(compared < 0) low = mid + 1;
+            else high = mid - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * The number of cells
+     */
+    public int size(){
+        return counts.length;
+    }
+
+    public List<String> getTerms(){
+        return Collections.unmodifiableList(Arrays.asList(terms));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof ClusterSnapshot)) return false;
+        final ClusterSnapshot that = (ClusterSnapshot) o;
+        return Arrays.equals(terms, that.terms) && Arrays.equals(cells, that.cells) && Arrays.equals(counts, that.counts) && Arrays.deepEquals(sources, that.sources);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * Arrays.hashCode(terms) + Arrays.hashCode(cells)) + Arrays.hashCode(counts)) + Arrays.deepHashCode(sources);
+    }
+
+    private static int checkedSize(long size) throws IOException{
+        if(size > Integer.MAX_VALUE / 3) throw new IOException("The size " + size + " is too large.");
+        return (int) size;
+    }
+
+    /**
+     * A method for writing an unsigned LEB128 varint
+     */
+    private static void writeVarint(DataOutputStream out, long value) throws IOException{
+        while((value & ~0x7FL) != 0){
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * A method for reading an unsigned LEB128 varint
+     */
+    private static long readVarint(DataInputStream in) throws IOException{
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7){
+            final int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0) return value;
+        }
+        throw new IOException("The varint is malformed.");
+    }
+
+    /**
+     * A callback interface visiting the cells of a snapshot
+     */
+    public interface Visitor {
+        void visit(String category, String detail, String keyword, long count);
+    }
+
+    /**
+     * A callback interface visiting the distinct-source sketches of a snapshot
+     */
+    public interface SourcesVisitor {
+        void visit(String category, String detail, String keyword, HyperLogLog sources);
+    }
+
+}
@@ -0,0 +1,181 @@
+package cluster;
+
+import source.flow.Flow;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Subscriber feeding the received documents into a cluster with backpressure.
+ * At most bufferSize documents are requested ahead, and the demand is only replenished as the buffered documents are clustered,
+ * so that a burst of the publisher is throttled instead of growing the heap.
+ */
+public class ClusterSubscriber implements Flow.Subscriber<String> {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    /**
+     * The cluster receiving the documents
+     */
+    private final SimpleCluster<?> cluster;
+    /**
+     * The executor running the draining of the buffer
+     */
+    private final Executor executor;
+    private final int bufferSize;
+    /**
+     * The number of clustered documents after which the demand is replenished
+     */
+    private final int replenish;
+    /**
+     * The bounded buffer of the received documents which are not clustered yet
+     */
+    private final BlockingQueue<String> buffer;
+    /**
+     * The number of pending drain requests - Only one drain runs at a time
+     */
+    private final AtomicInteger wip = new AtomicInteger();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private volatile Flow.Subscription subscription;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+    /**
+     * The number of clustered documents not requested again yet (Accessed by the drain only)
+     */
+    private int consumed;
+
+    /**
+     * Default Constructor - The buffer is drained on the common fork-join pool
+     * @param cluster The cluster receiving the documents
+     */
+    public ClusterSubscriber(SimpleCluster<?> cluster){
+        this(cluster, DEFAULT_BUFFER_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor with the size of the buffer and the executor
+     * @param cluster The cluster receiving the documents
+     * @param bufferSize The largest number of documents requested ahead
+     * @param executor The executor running the draining of the buffer
+     * @throws IllegalArgumentException when the buffer size is not positive
+     */
+    public ClusterSubscriber(SimpleCluster<?> cluster, int bufferSize, Executor executor) throws IllegalArgumentException{
+        if(bufferSize < 1) throw new IllegalArgumentException("The buffer size must be positive : " + bufferSize);
+        this.cluster = cluster;
+        this.bufferSize = bufferSize;
+        this.replenish = Math.max(1, bufferSize / 2);
+        this.executor = executor;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if(this.subscription != null){
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(this.bufferSize);
+    }
+
+    @Override
+    public void onNext(String item) {
+        if(!this.buffer.offer(item)){
+            /**
+             * The publisher emitted more than requested
+             */
+            this.subscription.cancel();
+            onError(new IllegalStateException("The publisher exceeded the requested demand of " + this.bufferSize + " documents."));
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.error = throwable;
+        this.done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        this.done = true;
+        drain();
+    }
+
+    /**
+     * A method for cancelling the subscription - The buffered documents are discarded
+     */
+    public void cancel(){
+        this.cancelled = true;
+        final Flow.Subscription subscription = this.subscription;
+        if(subscription != null) subscription.cancel();
+        drain();
+    }
+
+    /**
+     * A method for retrieving the completion of this subscriber
+     * @return A future completed when every received document is clustered (Completed exceptionally on an error or a cancellation)
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    public SimpleCluster<?> getCluster() {
+        return cluster;
+    }
+
+    private void drain(){
+        if(this.wip.getAndIncrement() == 0){
+            try{
+                this.executor.execute(this::drainLoop);
+            }catch (RejectedExecutionException e){
+                this.cancelled = true;
+                this.subscription.cancel();
+                this.buffer.clear();
+                this.completion.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void drainLoop(){
+        int missed = 1;
+        while(true){
+            String item;
+            while((item = this.buffer.poll()) != null){
+                if(this.cancelled) break;
+                try{
+                    this.cluster.accept(item);
+                }catch (RuntimeException e){
+                    this.cancelled = true;
+                    this.subscription.cancel();
+                    this.completion.completeExceptionally(e);
+                    break;
+                }
+                if(++this.consumed >= this.replenish && !this.done){
+                    final int requested = this.consumed;
+                    this.consumed = 0;
+                    this.subscription.request(requested);
+                }
+            }
+            if(this.cancelled){
+                this.buffer.clear();
+                this.completion.completeExceptionally(new CancellationException("The subscription is cancelled."));
+                return;
+            }
+            if(this.done && this.buffer.isEmpty()){
+                if(this.error != null) this.completion.completeExceptionally(this.error);
+                else this.completion.complete(null);
+                return;
+            }
+            missed = this.wip.addAndGet(-missed);
+            if(missed == 0) break;
+        }
+    }
+
+}
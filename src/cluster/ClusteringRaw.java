@@ -1,25 +1,42 @@
 package cluster;
 
+import cluster.store.HyperLogLog;
+
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author EuiJin.Ham
  * @version 1.0.5
  * @description A Class for storing entire Clustered data
+ * The count and the keyword tally are striped counters, so that a cell can be updated from several threads without locking or losing increments.
+ * A cell of a single keyword only keeps the count, and its tally is built from the count when it is read.
  */
 public class ClusteringRaw {
 
     private String category;
     private String detailCategory;
-    private Map<String, Integer> keywords;
-    private int count = 0;
+    /**
+     * The keyword of a single-keyword cell (null if the tally is kept by keywords)
+     */
+    private volatile String keyword;
+    /**
+     * The tally of the keywords other than the single keyword - Created on the first of them
+     */
+    private volatile ConcurrentHashMap<String, LongAdder> keywords;
+    private final LongAdder count;
+    /**
+     * The sketch of the distinct sources contributing to this cell (null if the distinct sources are not counted)
+     */
+    private volatile HyperLogLog distinctSources;
 
     public ClusteringRaw(String category, String detailCategory, int count) {
         this();
         this.category = category;
         this.detailCategory = detailCategory;
-        this.count = count;
+        this.count.add(count);
     }
 
     public ClusteringRaw(String category, String detailCategory) {
@@ -28,29 +45,119 @@ public class ClusteringRaw {
         this.detailCategory = detailCategory;
     }
 
+    /**
+     * Constructor of a single-keyword cell - The hits of the keyword are counted by the count alone
+     * @param category Category Name
+     * @param detailCategory Detail Category Name
+     * @param keyword Keyword
+     */
+    public ClusteringRaw(String category, String detailCategory, String keyword) {
+        this(category, detailCategory);
+        this.keyword = keyword;
+    }
+
     public ClusteringRaw(){
-        this.keywords = new HashMap<>();
+        this.count = new LongAdder();
     }
 
     /**
-     * A Method for adding an elected keyword
+     * Copy Constructor - The copy does not follow the later updates of the cell
+     * @param raw The cell to copy
+     */
+    public ClusteringRaw(ClusteringRaw raw){
+        this(raw.getCategory(), raw.getDetailCategory(), raw.keyword);
+        final ConcurrentHashMap<String, LongAdder> keywords = raw.keywords;
+        if(keywords != null){
+            for(Map.Entry<String, LongAdder> e : keywords.entrySet()){
+                final LongAdder tally = new LongAdder();
+                tally.add(e.getValue().sum());
+                tally().put(e.getKey(), tally);
+            }
+        }
+        this.count.add(raw.count.sum());
+        final HyperLogLog sources = raw.distinctSources;
+        if(sources != null) this.distinctSources = sources.copy();
+    }
+
+    /**
+     * A Method for adding an elected keyword (Thread-Safe)
      * @param keyword keyword to input
      */
     public void addKeyword(String keyword){
-        if(this.keywords.containsKey(keyword)){
-            int count = this.keywords.get(keyword);
-            this.keywords.put(keyword, count + 1);
-        }else{
-            this.keywords.put(keyword, 1);
-        }
+        /**
+         * The tally of the single keyword is the count itself
+         */
+        if(keyword.equals(this.keyword)) return;
+        tallyOf(keyword).increment();
+    }
+
+    /**
+     * A Method for adding several hits of a keyword at once to the count and the keyword tally (Thread-Safe)
+     * @param keyword keyword to input
+     * @param hits The number of hits
+     */
+    public void add(String keyword, long hits){
+        this.count.add(hits);
+        if(!keyword.equals(this.keyword)) tallyOf(keyword).add(hits);
     }
 
+    /**
+     * A Method for adding hits of the single keyword of a cell to the count (Thread-Safe)
+     * @param hits The number of hits
+     */
+    public void addCount(long hits){
+        this.count.add(hits);
+    }
+
+    /**
+     * A Method for retrieving the keyword tally
+     * @return A snapshot of the keyword tally
+     */
     public Map<String, Integer> getKeywords() {
-        return keywords;
+        final Map<String, Integer> snapshot = new HashMap<>();
+        long others = 0;
+        final ConcurrentHashMap<String, LongAdder> keywords = this.keywords;
+        if(keywords != null){
+            for(Map.Entry<String, LongAdder> e : keywords.entrySet()){
+                final long tally = e.getValue().sum();
+                snapshot.put(e.getKey(), (int) tally);
+                others += tally;
+            }
+        }
+        final String keyword = this.keyword;
+        if(keyword != null) snapshot.put(keyword, (int) (this.count.sum() - others));
+        return snapshot;
     }
 
     public void setKeywords(Map<String, Integer> keywords) {
-        this.keywords = keywords;
+        final ConcurrentHashMap<String, LongAdder> tallies = new ConcurrentHashMap<>();
+        for(Map.Entry<String, Integer> e : keywords.entrySet()){
+            final LongAdder tally = new LongAdder();
+            tally.add(e.getValue());
+            tallies.put(e.getKey(), tally);
+        }
+        this.keywords = tallies;
+        this.keyword = null;
+    }
+
+    /**
+     * A Method for retrieving the tally map, creating it on the first use
+     */
+    private ConcurrentHashMap<String, LongAdder> tally(){
+        ConcurrentHashMap<String, LongAdder> keywords = this.keywords;
+        if(keywords == null){
+            synchronized (this){
+                keywords = this.keywords;
+                if(keywords == null) this.keywords = keywords = new ConcurrentHashMap<>();
+            }
+        }
+        return keywords;
+    }
+
+    private LongAdder tallyOf(String keyword){
+        final ConcurrentHashMap<String, LongAdder> keywords = tally();
+        final LongAdder tally = keywords.get(keyword);
+        return tally != null ? tally : keywords.computeIfAbsent(keyword, k -> new LongAdder());
     }
 
     public String getCategory() {
@@ -70,15 +177,52 @@ public class ClusteringRaw {
     }
 
     public int getCount() {
-        return count;
+        return this.count.intValue();
+    }
+
+    /**
+     * A Method for retrieving the count without narrowing it into int
+     * @return The count
+     */
+    public long getLongCount() {
+        return this.count.sum();
     }
 
+    /**
+     * A Method for overwriting the count (Not atomic with the concurrent increments)
+     * @param count The count
+     */
     public void setCount(int count) {
-        this.count = count;
+        this.count.reset();
+        this.count.add(count);
     }
 
+    /**
+     * A Method for incrementing the count (Thread-Safe)
+     */
     public void incCount(){
-        this.count++;
+        this.count.increment();
+    }
+
+    /**
+     * A Method for retrieving the estimated number of distinct documents or sources contributing to this cell
+     * @return The estimate (0 if the distinct sources are not counted)
+     */
+    public long getDistinctCount() {
+        final HyperLogLog sources = this.distinctSources;
+        return sources == null ? 0 : sources.estimate();
+    }
+
+    /**
+     * A Method for retrieving the sketch of the distinct sources - Sketches of the same cell from other threads or nodes can be merged into it
+     * @return The sketch (null if the distinct sources are not counted)
+     */
+    public HyperLogLog getDistinctSources() {
+        return distinctSources;
+    }
+
+    public void setDistinctSources(HyperLogLog distinctSources) {
+        this.distinctSources = distinctSources;
     }
 
 }
@@ -2,6 +2,7 @@ package cluster;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * @author EuiJin.Ham
@@ -44,4 +45,20 @@ public interface ICluster<T> {
      */
     List<ClusteringRaw> asList();
 
+    /**
+     * A method to take entire data as a stream of mapped state
+     * @return The stream of mapped clustered data (Implementations may map the data lazily)
+     */
+    default Stream<T> stream(){
+        return takeAll().stream();
+    }
+
+    /**
+     * A method to take entire data as a stream of raw state
+     * @return The stream of raw clustered data (Implementations may create the data lazily)
+     */
+    default Stream<ClusteringRaw> rawStream(){
+        return asList().stream();
+    }
+
 }
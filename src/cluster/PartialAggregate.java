@@ -0,0 +1,40 @@
+package cluster;
+
+import cluster.collection.LongLongMap;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A private, unsynchronized count table of a worker holding the hits which are not merged into the shared cells yet
+ */
+final class PartialAggregate {
+
+    /**
+     * The counts of the cells keyed by the packed term ids
+     */
+    final LongLongMap cells = new LongLongMap();
+    /**
+     * The worker thread owning the table - The table is dropped from the registry once the owner has terminated
+     */
+    final Thread owner = Thread.currentThread();
+    /**
+     * The number of hits since the last merge
+     */
+    int pending;
+
+    /**
+     * A method for counting a hit
+     * @param key The packed key of the cell
+     * @return The number of hits since the last merge
+     */
+    int add(long key){
+        cells.add(key, 1);
+        return ++pending;
+    }
+
+    void reset(){
+        cells.clear();
+        pending = 0;
+    }
+
+}
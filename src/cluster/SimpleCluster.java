@@ -2,12 +2,17 @@ package cluster;
 
 import cluster.constants.FlagState;
 import cluster.normalization.AggregationFilter;
-import cluster.normalization.exceptions.InfiniteRecurrenceException;
 import source.DataSource;
+import source.IByteDataSource;
 import target.Target;
+import target.TermDictionary;
 
+import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author EuiJin.Ham
@@ -17,6 +22,24 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public abstract class SimpleCluster<T> extends Cluster<T> {
 
+    /**
+     * The number of tasks per worker in parallel mode - Several tasks per worker balance the documents of uneven length
+     */
+    private static final int TASKS_PER_WORKER = 4;
+
+    /**
+     * The number of workers of make() (1 means serial)
+     */
+    private int parallelism = 1;
+    /**
+     * The executor running the workers of make() (null means a fork-join pool of the parallelism)
+     */
+    private Executor executor;
+    /**
+     * The fork-join pool of the parallelism reused by every make() - It is created lazily and replaced when the parallelism changes
+     */
+    private ForkJoinPool pool;
+
     /**
      * Constructor with multi-dataSource
      * @param target target Configuration
@@ -49,83 +72,255 @@ public abstract class SimpleCluster<T> extends Cluster<T> {
         if(isDebug()){
             System.err.println(Thread.currentThread().getName() + " - " + "[SimpleCluster] make called.");
         }
-        if(this.clusteringRawMap == null) this.clusteringRawMap = new ConcurrentHashMap<>();
-        final List<String> mergedList = DataSource.mergeAsList(this.dataSources);
-
-        for(String datum : mergedList){
-            final AggregationFilter aggregationFilter = new AggregationFilter(datum, this.target);
-            aggregationFilter.setDebug(isDebug());
-            if(isDebug()){
-                System.err.println(Thread.currentThread().getName() + " - " + String.format("[SimpleCluster] AggregationFilter Constructed => [%s] : ", datum) + this.target);
-            }
-            Set<String> normalized;
-            try {
-                normalized = aggregationFilter.normalize();
-            }catch (InfiniteRecurrenceException e){
-                e.printStackTrace();
-                normalized = new HashSet<>();
-            }
+        prepareStorage();
 
-            if(isDebug()){
-                System.err.println(Thread.currentThread().getName() + " - " + "[SimpleCluster] Normalizing Done. => " + normalized);
+        if(this.executor == null && this.parallelism <= 1){
+            for(DataSource dataSource : this.dataSources) cluster(dataSource);
+        }else{
+            makeParallel();
+        }
+        flushPartials();
+
+    }
+
+    /**
+     * A method for clustering the data sources with several workers - Every document is normalized and classified independently
+     * and the cells are counted atomically, so the result is identical to the serial one
+     */
+    private void makeParallel(){
+        final List<DataSource> sources = new ArrayList<>(this.dataSources);
+        final int workers = this.executor == null ? this.parallelism : Math.max(this.parallelism, Runtime.getRuntime().availableProcessors());
+        final int chunk = Math.max(1, (sources.size() + workers * TASKS_PER_WORKER - 1) / (workers * TASKS_PER_WORKER));
+        if(isDebug()){
+            System.err.println(Thread.currentThread().getName() + " - " + String.format("[SimpleCluster] Making %d data sources with %d workers in chunks of %d.", sources.size(), workers, chunk));
+        }
+
+        final Executor executor = this.executor == null ? workerPool() : this.executor;
+        try{
+            final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for(int from = 0; from < sources.size(); from += chunk){
+                final List<DataSource> part = sources.subList(from, Math.min(from + chunk, sources.size()));
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    for(DataSource dataSource : part) cluster(dataSource);
+                }, executor));
             }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        }catch (CompletionException e){
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if(e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * A method for getting the fork-join pool of the parallelism - The workers of the pool idle out between the runs of make()
+     * so the pool is kept instead of being created and shut down per make()
+     * @return The fork-join pool
+     */
+    private synchronized ForkJoinPool workerPool(){
+        if(this.pool == null || this.pool.getParallelism() != this.parallelism){
+            if(this.pool != null) this.pool.shutdown();
+            this.pool = new ForkJoinPool(this.parallelism);
+        }
+        return this.pool;
+    }
+
+    /**
+     * A method for clustering the document of a data source
+     * @param dataSource The data source
+     */
+    private void cluster(DataSource dataSource){
+        /**
+         * The data sources providing UTF-8 bytes are scanned without decoding
+         */
+        if(dataSource instanceof IByteDataSource){
+            cluster(new AggregationFilter(((IByteDataSource) dataSource).takeBytes(), this.target), eventTime(), dataSource.getSourceId());
+        }else{
+            cluster(new AggregationFilter(dataSource.take(), this.target), eventTime(), dataSource.getSourceId());
+        }
+    }
+
+    /**
+     * A method for clustering a UTF-8 encoded document without decoding. e.g) a buffer read from a socket channel
+     * @param utf8 UTF-8 encoded document (The remaining bytes are clustered)
+     */
+    public void make(ByteBuffer utf8) {
+        prepareStorage();
+        cluster(new AggregationFilter(utf8, this.target));
+        flushPartials();
+    }
+
+    /**
+     * A method for clustering a document as it arrives - The clustered data can be taken concurrently. The bulk reads such as asList() reflect every accepted document,
+     * and a single cell read by getData() reflects the hits counted into the storage so far (Thread-Safe)
+     * @param document The document
+     */
+    public void accept(CharSequence document){
+        ensureStorage();
+        cluster(new AggregationFilter(document.toString(), this.target));
+    }
+
+    /**
+     * A method for clustering a document with its event time as it arrives (Thread-Safe)
+     * @param document The document
+     * @param timestamp The event time of the document in milliseconds - The windows of the windowed mode are bucketed by this time
+     */
+    public void accept(CharSequence document, long timestamp){
+        ensureStorage();
+        cluster(new AggregationFilter(document.toString(), this.target), timestamp, null);
+    }
+
+    /**
+     * A method for clustering a document with its event time and its source as it arrives (Thread-Safe)
+     * @param document The document
+     * @param timestamp The event time of the document in milliseconds
+     * @param sourceId The id of the origin of the document for counting distinct sources. e.g) The domain of a web site
+     */
+    public void accept(CharSequence document, long timestamp, String sourceId){
+        ensureStorage();
+        cluster(new AggregationFilter(document.toString(), this.target), timestamp, sourceId);
+    }
 
-            final Iterator<String> iterator = normalized.iterator();
+    /**
+     * A method for clustering documents as they arrive (Thread-Safe)
+     * @param documents The documents
+     */
+    public void acceptAll(Iterable<? extends CharSequence> documents){
+        ensureStorage();
+        for(CharSequence document : documents) cluster(new AggregationFilter(document.toString(), this.target));
+    }
+
+    /**
+     * A method for normalizing a document with the filter and clustering it at the current time
+     * @param aggregationFilter The filter constructed with a document
+     */
+    private void cluster(AggregationFilter aggregationFilter){
+        cluster(aggregationFilter, eventTime(), null);
+    }
+
+    /**
+     * A method for normalizing a document with the filter and clustering it
+     * @param aggregationFilter The filter constructed with a document
+     * @param timestamp The event time of the document in milliseconds
+     * @param sourceId The source id of the document (null if the document is a distinct source by itself)
+     */
+    private void cluster(AggregationFilter aggregationFilter, long timestamp, String sourceId){
+        aggregationFilter.setDebug(isDebug());
+        aggregationFilter.setMatcherEngine(getMatcherEngine());
+        if(isDebug()){
+            System.err.println(Thread.currentThread().getName() + " - " + "[SimpleCluster] AggregationFilter Constructed : " + this.target);
+        }
+        final int[] normalized = aggregationFilter.normalizeIds();
 
-            String category = null;
-            String detail = null;
-            Set<String> keywords = new HashSet<>();
+        if(isDebug()){
+            System.err.println(Thread.currentThread().getName() + " - " + "[SimpleCluster] Normalizing Done. => " + Arrays.toString(normalized));
+        }
+
+        cluster(normalized, timestamp, sourceId);
+    }
+
+    /**
+     * A method for clustering the normalized term ids of a document at the current time
+     * @param normalized distinct normalized term ids of the target in ascending order
+     */
+    protected void cluster(int[] normalized){
+        cluster(normalized, eventTime(), null);
+    }
+
+    /**
+     * A method for clustering the normalized term ids of a document
+     * @param normalized distinct normalized term ids of the target in ascending order
+     * @param timestamp The event time of the document in milliseconds
+     */
+    protected void cluster(int[] normalized, long timestamp){
+        cluster(normalized, timestamp, null);
+    }
 
+    /**
+     * A method for clustering the normalized term ids of a document
+     * @param normalized distinct normalized term ids of the target in ascending order
+     * @param timestamp The event time of the document in milliseconds
+     * @param sourceId The source id of the document (null if the document is a distinct source by itself)
+     */
+    protected void cluster(int[] normalized, long timestamp, String sourceId){
+        int category = TermDictionary.NONE;
+        int detail = TermDictionary.NONE;
+        final int[] keywords = new int[normalized.length];
+        int keywordCount = 0;
+
+        /**
+         * Extracted Keywords Loop - Each term is classified with a single lookup on the role table.
+         * A category term only sets the category. A term which is both keyword and detail is counted as a keyword and also sets the detail.
+         */
+        for(int now : normalized){
+            final int roles = this.target.getRoles(now);
+            if((roles & FlagState.CATEGORY.mask()) != 0){
+                category = now;
+                continue;
+            }
+            if((roles & FlagState.KEYWORD.mask()) != 0){
+                keywords[keywordCount++] = now;
+            }
+            if((roles & FlagState.DETAIL.mask()) != 0){
+                detail = now;
+                /**
+                 * Unreasonable Part - If The Category is not decided or does not enclose the detail, The first category enclosing the detail would be allocated
+                 */
+                if(category == TermDictionary.NONE || !this.target.isDetailOf(category, now)){
+                    category = this.target.getCategoriesOfDetail(now)[0];
+                }
+            }
+        } // End Of Keywords Loop
+
+        if(keywordCount > 0 && category != TermDictionary.NONE){
+            final int notCategorized = this.target.getNotCategorizedId();
+            final boolean distinct = isCountingDistinct();
+            final long sourceHash = distinct ? sourceHashOf(sourceId) : 0L;
             /**
-             * Extracted Keywords Loop
+             * The hits of a document are counted under the shared lock, so that a read never sees a half-counted document
              */
-            while(iterator.hasNext()){
-                final String now = iterator.next();
-                FlagState flagState = super.decideWhatItIs(now, category);
-                if(flagState == FlagState.NOTHING){
-                    final Set<String> found = super.getCategoryOfDetail(now);
-                    if(found.size() > 0){
-                        if(isDebug()){
-                            System.err.println(Thread.currentThread().getName() + " - " + "[SimpleCluster] keyword elected by getCategoryOfDetail => " + found);
-                        }
-                        detail = now;
-                        /**
-                         * Unreasonable Part - If The Category is not decided The first element of the found set would be allocated
-                         */
-                        if(!(category != null && found.contains(category))) category = found.iterator().next();
+            this.documentLock.lock();
+            try{
+                for(int k = 0; k < keywordCount; k++){
+                    if(detail != TermDictionary.NONE){
+                        accumulate(category, detail, keywords[k], timestamp);
+                        if(distinct) offerSource(category, detail, keywords[k], sourceHash);
                     }
+                    accumulate(category, notCategorized, keywords[k], timestamp);
+                    if(distinct) offerSource(category, notCategorized, keywords[k], sourceHash);
                 }
-                switch (flagState){
-                    case KEYWORD:
-                        keywords.add(now);
-                        break;
-                    case DETAIL:
-                        detail = now;
-                        break;
-                    case CATEGORY:
-                        category = now;
-                        break;
-                    case NOTHING:
-                        // Do Nothing
-                        break;
-                    default: break;
-                }
+                accumulatePairs(category, keywords, keywordCount);
+            }finally {
+                this.documentLock.unlock();
+            }
+        }
+
+    }
 
-            } // End Of Keywords Loop
+    public int getParallelism() {
+        return parallelism;
+    }
 
-            if(keywords.size() > 0 && category != null){
-                final Iterator<String> kIterator = keywords.iterator();
-                while(kIterator.hasNext()){
-                    final String keyCursor = kIterator.next();
-                    if(detail != null){
-                        super.putData(category, detail, keyCursor);
-                    }
-                    super.putData(category, Target.DETAIL_NOT_CATEGORIZED, keyCursor);
-                }
-            }
+    /**
+     * A method for setting the number of workers of make()
+     * @param parallelism The number of workers (1 means serial)
+     * @throws IllegalArgumentException when the parallelism is not positive
+     */
+    public void setParallelism(int parallelism) throws IllegalArgumentException{
+        if(parallelism < 1) throw new IllegalArgumentException("The parallelism must be positive : " + parallelism);
+        this.parallelism = parallelism;
+    }
 
-        }
+    public Executor getExecutor() {
+        return executor;
+    }
 
+    /**
+     * A method for supplying the executor running the workers of make() - make() runs in parallel with a supplied executor
+     * @param executor The executor (null means a fork-join pool of the parallelism)
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
     }
 
     @Override
@@ -0,0 +1,209 @@
+package cluster.collection;
+
+import java.util.Arrays;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An open-addressing hash map from non-negative primitive long keys to long counts with linear probing.
+ * This map is not synchronized and is meant to be owned by a single thread. e.g) A partial aggregate of a worker
+ */
+public class LongLongMap {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.5f;
+    /**
+     * The key of an empty slot (Keys must be non-negative)
+     */
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    /**
+     * Default Constructor
+     */
+    public LongLongMap(){
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private void allocate(int capacity){
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+        this.size = 0;
+    }
+
+    /**
+     * The finalizer of MurmurHash3 spreading the bits of packed keys
+     */
+    private static int hash(long key){
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * A method for adding to the value of a key - An absent key starts from 0
+     * @param key The non-negative key
+     * @param delta The amount to add
+     * @return The new value
+     */
+    public long add(long key, long delta){
+        int slot = hash(key) & mask;
+        while(true){
+            final long current = keys[slot];
+            if(current == key) return values[slot] += delta;
+            if(current == EMPTY) break;
+            slot = (slot + 1) & mask;
+        }
+        if(size + 1 > threshold){
+            resize();
+            return add(key, delta);
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        size++;
+        return delta;
+    }
+
+    /**
+     * A method for setting the value of a key
+     * @param key The non-negative key
+     * @param value The value
+     */
+    public void put(long key, long value){
+        int slot = hash(key) & mask;
+        while(true){
+            final long current = keys[slot];
+            if(current == key){
+                values[slot] = value;
+                return;
+            }
+            if(current == EMPTY) break;
+            slot = (slot + 1) & mask;
+        }
+        if(size + 1 > threshold){
+            resize();
+            put(key, value);
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * A method for removing a key - The following entries of the probe sequence are shifted back, so no tombstone is left
+     * @param key The non-negative key
+     * @return true if the key was present
+     */
+    public boolean remove(long key){
+        int slot = hash(key) & mask;
+        while(true){
+            final long current = keys[slot];
+            if(current == EMPTY) return false;
+            if(current == key) break;
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for(int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask){
+            final int home = hash(keys[next]) & mask;
+            /**
+             * The entry may fill the hole only when the hole lies on its probe sequence, cyclically between its home slot and itself
+             */
+            if(((next - home) & mask) >= ((next - hole) & mask)){
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * A method for checking if a key is present
+     * @param key The non-negative key
+     * @return true if the key is present
+     */
+    public boolean containsKey(long key){
+        int slot = hash(key) & mask;
+        while(true){
+            final long current = keys[slot];
+            if(current == key) return true;
+            if(current == EMPTY) return false;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * A method for retrieving the value of a key
+     * @param key The non-negative key
+     * @return The value (0 if the key is absent)
+     */
+    public long get(long key){
+        int slot = hash(key) & mask;
+        while(true){
+            final long current = keys[slot];
+            if(current == key) return values[slot];
+            if(current == EMPTY) return 0;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize(){
+        final long[] oldKeys = this.keys;
+        final long[] oldValues = this.values;
+        allocate(oldKeys.length << 1);
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldKeys[i] != EMPTY) add(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    /**
+     * A method for visiting every entry
+     * @param visitor The visitor
+     */
+    public void forEach(Visitor visitor){
+        for(int i = 0; i < keys.length; i++){
+            if(keys[i] != EMPTY) visitor.visit(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * A method for removing every entry - The capacity is kept, so that a reused map does not grow again
+     */
+    public void clear(){
+        if(size == 0) return;
+        Arrays.fill(this.keys, EMPTY);
+        Arrays.fill(this.values, 0);
+        this.size = 0;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * A primitive callback interface visiting the entries without boxing
+     */
+    public interface Visitor {
+        void visit(long key, long value);
+    }
+
+}
@@ -0,0 +1,242 @@
+package cluster.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A concurrent open-addressing hash map from primitive long keys to objects with linear probing.
+ * Lookups are lock-free and allocate nothing. Insertions are serialized with a lock and the table is replaced on resizing.
+ * Entries are never removed one by one. (Thread-Safe)
+ * @param <V> The type of values
+ */
+public class LongObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * The current table - A table is only written before being published or under the lock
+     */
+    private volatile Table<V> table;
+    private final Object lock = new Object();
+
+    /**
+     * Default Constructor
+     */
+    public LongObjectMap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with an expected size
+     * @param expected The expected number of entries
+     */
+    public LongObjectMap(int expected){
+        this.table = new Table<>(capacityFor(expected));
+    }
+
+    private static int capacityFor(int expected){
+        int capacity = DEFAULT_CAPACITY;
+        while(capacity * LOAD_FACTOR < expected) capacity <<= 1;
+        return capacity;
+    }
+
+    /**
+     * The finalizer of MurmurHash3 spreading the bits of packed keys
+     */
+    private static int hash(long key){
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * A method for retrieving the value of a key without locking
+     * @param key The key
+     * @return The value (null if the key is absent)
+     */
+    public V get(long key){
+        return this.table.get(key);
+    }
+
+    public boolean containsKey(long key){
+        return get(key) != null;
+    }
+
+    /**
+     * A method for retrieving the value of a key, creating it with the mapping function when the key is absent.
+     * The function is called at most once per key.
+     * @param key The key
+     * @param mapping The function creating the value (must not return null)
+     * @return The current value
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mapping){
+        final V value = this.table.get(key);
+        if(value != null) return value;
+        synchronized (this.lock){
+            final V current = this.table.get(key);
+            if(current != null) return current;
+            final V created = mapping.apply(key);
+            if(created == null) throw new NullPointerException("The mapping function returned null for the key " + key);
+            insert(key, created);
+            return created;
+        }
+    }
+
+    /**
+     * A method for putting a value
+     * @param key The key
+     * @param value The value (must not be null)
+     * @return The previous value (null if the key was absent)
+     */
+    public V put(long key, V value){
+        if(value == null) throw new NullPointerException("Null values are not permitted");
+        synchronized (this.lock){
+            final Table<V> table = this.table;
+            final int slot = table.slot(key);
+            final V previous = table.values.get(slot);
+            if(previous != null){
+                table.values.set(slot, value);
+                return previous;
+            }
+            insert(key, value);
+            return null;
+        }
+    }
+
+    /**
+     * A private method for inserting an absent key (Must be called under the lock)
+     */
+    private void insert(long key, V value){
+        Table<V> table = this.table;
+        if(table.size + 1 > table.threshold){
+            table = table.resize();
+            this.table = table;
+        }
+        table.store(key, value);
+    }
+
+    public int size(){
+        return this.table.size;
+    }
+
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    /**
+     * A method for removing every entry - Concurrent readers keep seeing the former entries until they reload the table
+     */
+    public void clear(){
+        synchronized (this.lock){
+            this.table = new Table<>(DEFAULT_CAPACITY);
+        }
+    }
+
+    /**
+     * A method for visiting every entry of the current table without locking - Entries inserted while visiting may not be visited
+     * @param visitor The visitor
+     */
+    public void forEach(Visitor<? super V> visitor){
+        final Table<V> table = this.table;
+        for(int i = 0; i < table.keys.length; i++){
+            final V value = table.values.get(i);
+            if(value != null) visitor.visit(table.keys[i], value);
+        }
+    }
+
+    /**
+     * A method for taking the values of the current table
+     * @return A snapshot list of the values
+     */
+    public List<V> values(){
+        final List<V> values = new ArrayList<>(size());
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+
+    /**
+     * A method for taking the keys of the current table
+     * @return A snapshot array of the keys
+     */
+    public long[] keys(){
+        final Table<V> table = this.table;
+        final long[] keys = new long[table.size];
+        int count = 0;
+        for(int i = 0; i < table.keys.length && count < keys.length; i++){
+            if(table.values.get(i) != null) keys[count++] = table.keys[i];
+        }
+        return count == keys.length ? keys : Arrays.copyOf(keys, count);
+    }
+
+    /**
+     * A primitive callback interface visiting the entries without boxing the keys
+     * @param <V> The type of values
+     */
+    public interface Visitor<V> {
+        void visit(long key, V value);
+    }
+
+    /**
+     * A table of slots - A slot is occupied once its value is set, and the key of a slot is written before its value is published
+     */
+    private static final class Table<V> {
+
+        private final long[] keys;
+        private final AtomicReferenceArray<V> values;
+        private final int mask;
+        private final int threshold;
+        private volatile int size;
+
+        Table(int capacity){
+            this.keys = new long[capacity];
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        V get(long key){
+            int slot = hash(key) & mask;
+            while(true){
+                final V value = values.get(slot);
+                if(value == null) return null;
+                if(keys[slot] == key) return value;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * The slot of the key or the empty slot ending its probe sequence
+         */
+        int slot(long key){
+            int slot = hash(key) & mask;
+            while(values.get(slot) != null && keys[slot] != key) slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        void store(long key, V value){
+            final int slot = slot(key);
+            keys[slot] = key;
+            values.set(slot, value);
+            size++;
+        }
+
+        Table<V> resize(){
+            final Table<V> resized = new Table<>(keys.length << 1);
+            for(int i = 0; i < keys.length; i++){
+                final V value = values.get(i);
+                if(value != null) resized.store(keys[i], value);
+            }
+            return resized;
+        }
+    }
+
+}
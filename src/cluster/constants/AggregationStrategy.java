@@ -0,0 +1,11 @@
+package cluster.constants;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An Enumeration class to express how the workers of a cluster count the cells
+ */
+public enum AggregationStrategy {
+    SHARED, // Every hit is counted atomically on the shared cells
+    PARTIAL // Every worker counts into a private table merged into the shared cells at the flush points
+}
@@ -6,8 +6,22 @@ package cluster.constants;
  * @description An Enumeration class to express the type of a keyword
  */
 public enum FlagState {
-    NOTHING, // Cannot be classified
-    CATEGORY, // Category
-    DETAIL,  // Detailed Category
-    KEYWORD // Simply Keyword
+    NOTHING(0), // Cannot be classified
+    CATEGORY(1), // Category
+    DETAIL(1 << 1),  // Detailed Category
+    KEYWORD(1 << 2); // Simply Keyword
+
+    private final int mask;
+
+    FlagState(int mask){
+        this.mask = mask;
+    }
+
+    /**
+     * A method for retrieving the bit of this state in the role table of a target
+     * @return bitmask
+     */
+    public int mask() {
+        return mask;
+    }
 }
@@ -0,0 +1,12 @@
+package cluster.constants;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An Enumeration class to express the storage backend of the cells of a cluster
+ */
+public enum StorageMode {
+    SPARSE, // A map of cell objects keyed by packed term ids
+    DENSE, // A flat count tensor indexed by term ids (Falls back to SPARSE above the memory budget)
+    SKETCH // A Count-Min sketch of fixed memory with approximate counts (The cells cannot be enumerated)
+}
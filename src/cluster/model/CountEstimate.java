@@ -0,0 +1,107 @@
+package cluster.model;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Class for storing the approximate count of a cell with its error bound
+ */
+public class CountEstimate {
+
+    private String category;
+    private String detailCategory;
+    private String keyword;
+    /**
+     * The estimated count - It is never below the true count
+     */
+    private long count;
+    /**
+     * The largest overestimation of the count with the probability of the confidence
+     */
+    private long errorBound;
+    private double confidence;
+
+    /**
+     * Default Constructor
+     */
+    public CountEstimate(){
+    }
+
+    /**
+     * Constructor with every field
+     */
+    public CountEstimate(String category, String detailCategory, String keyword, long count, long errorBound, double confidence){
+        this.category = category;
+        this.detailCategory = detailCategory;
+        this.keyword = keyword;
+        this.count = count;
+        this.errorBound = errorBound;
+        this.confidence = confidence;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getDetailCategory() {
+        return detailCategory;
+    }
+
+    public void setDetailCategory(String detailCategory) {
+        this.detailCategory = detailCategory;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getErrorBound() {
+        return errorBound;
+    }
+
+    public void setErrorBound(long errorBound) {
+        this.errorBound = errorBound;
+    }
+
+    /**
+     * The smallest possible true count with the probability of the confidence
+     */
+    public long getLowerBound() {
+        return Math.max(0, count - errorBound);
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+
+    @Override
+    public String toString() {
+        return "CountEstimate{" +
+                "category='" + category + '\'' +
+                ", detailCategory='" + detailCategory + '\'' +
+                ", keyword='" + keyword + '\'' +
+                ", count=" + count +
+                ", errorBound=" + errorBound +
+                ", confidence=" + confidence +
+                '}';
+    }
+}
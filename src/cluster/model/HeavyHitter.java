@@ -0,0 +1,107 @@
+package cluster.model;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Class for storing a heavy hitter of a category with the error bound of its count
+ */
+public class HeavyHitter {
+
+    private String category;
+    private String detailCategory;
+    private String keyword;
+    /**
+     * The estimated count - The true count is between count - error and count
+     */
+    private long count;
+    private long error;
+    /**
+     * true if the cell is surely in the requested top
+     */
+    private boolean guaranteed;
+
+    /**
+     * Default Constructor
+     */
+    public HeavyHitter(){
+    }
+
+    /**
+     * Constructor with every field
+     */
+    public HeavyHitter(String category, String detailCategory, String keyword, long count, long error, boolean guaranteed){
+        this.category = category;
+        this.detailCategory = detailCategory;
+        this.keyword = keyword;
+        this.count = count;
+        this.error = error;
+        this.guaranteed = guaranteed;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getDetailCategory() {
+        return detailCategory;
+    }
+
+    public void setDetailCategory(String detailCategory) {
+        this.detailCategory = detailCategory;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getError() {
+        return error;
+    }
+
+    public void setError(long error) {
+        this.error = error;
+    }
+
+    /**
+     * The smallest possible true count
+     */
+    public long getLowerBound() {
+        return count - error;
+    }
+
+    public boolean isGuaranteed() {
+        return guaranteed;
+    }
+
+    public void setGuaranteed(boolean guaranteed) {
+        this.guaranteed = guaranteed;
+    }
+
+    @Override
+    public String toString() {
+        return "HeavyHitter{" +
+                "category='" + category + '\'' +
+                ", detailCategory='" + detailCategory + '\'' +
+                ", keyword='" + keyword + '\'' +
+                ", count=" + count +
+                ", error=" + error +
+                ", guaranteed=" + guaranteed +
+                '}';
+    }
+}
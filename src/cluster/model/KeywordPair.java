@@ -0,0 +1,75 @@
+package cluster.model;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Class for storing a pair of keywords co-occurring in the documents of a category
+ */
+public class KeywordPair {
+
+    private String category;
+    private String keyword;
+    private String other;
+    /**
+     * The number of documents containing both keywords
+     */
+    private long count;
+
+    /**
+     * Default Constructor
+     */
+    public KeywordPair(){
+    }
+
+    /**
+     * Constructor with every field
+     */
+    public KeywordPair(String category, String keyword, String other, long count){
+        this.category = category;
+        this.keyword = keyword;
+        this.other = other;
+        this.count = count;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getOther() {
+        return other;
+    }
+
+    public void setOther(String other) {
+        this.other = other;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "KeywordPair{" +
+                "category='" + category + '\'' +
+                ", keyword='" + keyword + '\'' +
+                ", other='" + other + '\'' +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -15,6 +15,14 @@ public class SimpleClusterData {
     private String detailCategory;
     private Map<String, Integer> keywords;
     private int count = 0;
+    /**
+     * The estimated number of distinct sources (0 if the distinct sources are not counted)
+     */
+    private long distinctCount = 0;
+    /**
+     * true if the distinct sources are counted - The distinct count is printed only then
+     */
+    private boolean distinctCounted = false;
 
     /**
      * Default Constructor
@@ -31,6 +39,8 @@ public class SimpleClusterData {
         this.detailCategory = raw.getDetailCategory();
         this.keywords = raw.getKeywords();
         this.count = raw.getCount();
+        this.distinctCount = raw.getDistinctCount();
+        this.distinctCounted = raw.getDistinctSources() != null;
     }
 
     public String getCategory() {
@@ -57,6 +67,19 @@ public class SimpleClusterData {
         this.count = count;
     }
 
+    public long getDistinctCount() {
+        return distinctCount;
+    }
+
+    public void setDistinctCount(long distinctCount) {
+        this.distinctCount = distinctCount;
+        this.distinctCounted = true;
+    }
+
+    public boolean isDistinctCounted() {
+        return distinctCounted;
+    }
+
     @Override
     public String toString() {
         return "SimpleClusterData{" +
@@ -64,6 +87,7 @@ public class SimpleClusterData {
                 ", detailCategory='" + detailCategory + '\'' +
                 ", keyword='" + keywords + '\'' +
                 ", count=" + count +
+                (distinctCounted ? ", distinctCount=" + distinctCount : "") +
                 '}';
     }
 }
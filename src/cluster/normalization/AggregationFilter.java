@@ -1,10 +1,9 @@
 package cluster.normalization;
 
-import cluster.normalization.exceptions.InfiniteRecurrenceException;
-import org.ahocorasick.trie.Emit;
-import org.ahocorasick.trie.Trie;
+import cluster.normalization.matcher.MatcherEngine;
 import target.Target;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -18,6 +17,10 @@ public class AggregationFilter {
      * Original Text
      */
     private String origin;
+    /**
+     * Original Text as UTF-8 bytes (Scanned without decoding)
+     */
+    private ByteBuffer utf8Origin;
     /**
      * Target Instance
      */
@@ -26,12 +29,15 @@ public class AggregationFilter {
      * Debug Mode Flag
      */
     private boolean debug;
+    /**
+     * The engine of the compiled matcher
+     */
+    private MatcherEngine matcherEngine = MatcherEngine.DOUBLE_ARRAY;
 
     /**
      * Only This constructor must be used
      * @param origin Original Text
      * @param target Target Instance
-     * @throws InfiniteRecurrenceException Refer the class
      */
     public AggregationFilter(String origin, Target target){
         this.origin = origin;
@@ -39,107 +45,55 @@ public class AggregationFilter {
     }
 
     /**
-     * A Method for extracting keywords from original text with the aho-corasick algorithm
-     * @return extracted set
+     * A constructor for the UTF-8 encoded text - The text is scanned by the byte matcher of the target without decoding
+     * @param utf8Origin Original Text as UTF-8 bytes (The remaining bytes are scanned)
+     * @param target Target Instance
      */
-    private Set<String> extractKeywords(){
-        Set<String> set = new HashSet<>();
-
-        Trie.TrieBuilder trieBuilder = Trie.builder()
-                .addKeywords(this.target.getKeywords())
-                .addKeywords(this.target.getCategory().keySet());
-        /**
-         * The codes below are inactivated cause these occurs bug.
-         * trieBuilder.ignoreCase() means that trie ignores the case of the keywords not a source text to parse
-         */
-//        if(!this.target.isCaseSensitive()){
-//            trieBuilder.ignoreCase();
-//        }
-
-        final Iterator<String> iterator = this.target.getCategory().keySet().iterator();
-
-        while(iterator.hasNext()){
-            final String key = iterator.next();
-            trieBuilder.addKeywords(this.target.getCategory().get(key));
-        }
-
-        Collection<Emit> emits = trieBuilder.build().parseText(this.origin);
-        for(Emit e : emits){
-            set.add(e.getKeyword());
-        }
-
-        if(isDebug()){
-            System.err.println(Thread.currentThread().getName() + " - " + "[AggregationFilter] Extracing Done. => " + set);
-        }
-
-        return set;
+    public AggregationFilter(ByteBuffer utf8Origin, Target target){
+        this.utf8Origin = utf8Origin;
+        this.target = target;
     }
 
     /**
-     * A Method for eliminating synonyms
-     * @param set extracted keyword set
-     * @return cleaned set
-     * @throws InfiniteRecurrenceException Refer the class
+     * A Method for retrieving the normalized term ids with a single scan of the aho-corasick algorithm
+     * @apiNote The matcher is compiled once per target and emits the canonical term id of synonyms directly
+     * @return distinct normalized term ids in ascending order
      */
-    private Set<String> filterSynonyms(Set<String> set) throws InfiniteRecurrenceException{
-        Set<String> newSet = new HashSet<>();
-        Iterator<String> iterator = set.iterator();
+    public int[] normalizeIds(){
+        final BitSet found = new BitSet(this.target.getDictionary().size());
 
-        while(iterator.hasNext()){
-            newSet.add(recursiveSynonym(iterator.next()));
+        if(this.utf8Origin != null){
+            this.target.getByteMatcher().match(this.utf8Origin, (termId, offset) -> found.set(termId));
+        }else{
+            this.target.getMatcher(this.matcherEngine).match(this.origin, (termId, offset) -> found.set(termId));
         }
 
-        return newSet;
-    }
+        final int[] ids = new int[found.cardinality()];
+        for(int i = 0, id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) ids[i++] = id;
 
-    /**
-     * A Method for finding the final synonym keyword recursively in linear method
-     * @param now First Keyword
-     * @return Final Synonym
-     * @throws InfiniteRecurrenceException Refer the class
-     */
-    private String recursiveSynonym(String now) throws InfiniteRecurrenceException{
-        final Map<String, String> caseIgnore = new HashMap<>();
-        Iterator<String> iterator = this.target.getSynonym().keySet().iterator();
-        String cursor = now;
-        int recur = 0;
-        if(!this.target.isCaseSensitive()){
-            while(iterator.hasNext()){
-                final String key = iterator.next();
-                caseIgnore.put(key.toLowerCase(), this.target.getSynonym().get(key).toLowerCase());
-            }
-            if(!caseIgnore.containsKey(now)){
-                return now;
-            }else{
-                while(caseIgnore.containsKey(cursor.toLowerCase())){
-                    if(recur > caseIgnore.size()) throw new InfiniteRecurrenceException();
-                    cursor = caseIgnore.get(cursor.toLowerCase());
-                    recur++;
-                }
-                return cursor;
-            }
-        }else{
-            if(!this.target.getSynonym().containsKey(now)){
-                return now;
-            }else{
-                while(this.target.getSynonym().containsKey(cursor)){
-                    if(recur > this.target.getSynonym().size()) throw new InfiniteRecurrenceException();
-                    cursor = this.target.getSynonym().get(cursor);
-                    recur++;
-                }
-                return cursor;
-            }
+        if(isDebug()){
+            System.err.println(Thread.currentThread().getName() + " - " + "[AggregationFilter] Normalizing Done. => " + found);
         }
+
+        return ids;
     }
 
     /**
      * A Method for retrieving a normalized keyword set
      * @return normalized keyword set
-     * @throws InfiniteRecurrenceException Refer the class
      */
-    public Set<String> normalize() throws InfiniteRecurrenceException{
-        Set<String> extracted = this.extractKeywords();
-        return this.filterSynonyms(extracted);
+    public Set<String> normalize(){
+        final Set<String> set = new HashSet<>();
+        for(int id : normalizeIds()) set.add(this.target.getTerm(id));
+        return set;
+    }
+
+    public MatcherEngine getMatcherEngine() {
+        return matcherEngine;
+    }
+
+    public void setMatcherEngine(MatcherEngine matcherEngine) {
+        this.matcherEngine = matcherEngine;
     }
 
     public boolean isDebug() {
@@ -0,0 +1,65 @@
+package cluster.normalization.matcher;
+
+import org.ahocorasick.trie.Emit;
+import org.ahocorasick.trie.Trie;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Matcher class delegating to the org.ahocorasick trie
+ */
+public class AhoCorasickMatcher implements IMatcher {
+
+    private final Trie trie;
+    /**
+     * Pattern to term ids map for translating the emitted keywords (Keys are lowercased when case is ignored)
+     */
+    private final Map<String, List<Integer>> ids;
+    private final boolean caseSensitive;
+    private final int size;
+
+    /**
+     * Default Constructor
+     * @param patterns The patterns to compile
+     * @param termIds The term id emitted for each pattern
+     * @param caseSensitive false if the case of characters should be ignored
+     */
+    public AhoCorasickMatcher(String[] patterns, int[] termIds, boolean caseSensitive){
+        this.ids = new HashMap<>();
+        this.caseSensitive = caseSensitive;
+        final Set<String> distinct = new HashSet<>();
+        Trie.TrieBuilder trieBuilder = Trie.builder();
+        /**
+         * trieBuilder.ignoreCase() lowercases the text while parsing and emits the lowercased keyword
+         */
+        if(!caseSensitive) trieBuilder.ignoreCase();
+        for(int i = 0; i < patterns.length; i++){
+            if(patterns[i].isEmpty() || !distinct.add(patterns[i])) continue;
+            final String key = caseSensitive ? patterns[i] : patterns[i].toLowerCase();
+            if(!this.ids.containsKey(key)){
+                this.ids.put(key, new ArrayList<>(1));
+                trieBuilder.addKeyword(patterns[i]);
+            }
+            if(!this.ids.get(key).contains(termIds[i])) this.ids.get(key).add(termIds[i]);
+        }
+        this.size = distinct.size();
+        this.trie = trieBuilder.build();
+    }
+
+    @Override
+    public void match(CharSequence text, MatchHandler handler) {
+        for(Emit e : this.trie.parseText(text)){
+            final List<Integer> found = this.ids.get(caseSensitive ? e.getKeyword() : e.getKeyword().toLowerCase());
+            if(found == null) continue;
+            for(int termId : found) handler.onMatch(termId, e.getEnd());
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+}
@@ -0,0 +1,44 @@
+package cluster.normalization.matcher;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Utility class for folding the case of characters with a precomputed table
+ */
+public final class CaseFolding {
+
+    /**
+     * Folded character of every UTF-16 code unit
+     */
+    private static final char[] FOLD = new char[Character.MAX_VALUE + 1];
+
+    static {
+        for(int c = 0; c <= Character.MAX_VALUE; c++){
+            FOLD[c] = Character.toLowerCase(Character.toUpperCase((char) c));
+        }
+    }
+
+    private CaseFolding(){
+    }
+
+    /**
+     * A method for folding the case of a character
+     * @param c character
+     * @return folded character
+     */
+    public static char fold(char c){
+        return FOLD[c];
+    }
+
+    /**
+     * A method for folding the case of a string character by character
+     * @param str string
+     * @return folded string
+     */
+    public static String fold(String str){
+        final char[] chars = str.toCharArray();
+        for(int i = 0; i < chars.length; i++) chars[i] = FOLD[chars[i]];
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,213 @@
+package cluster.normalization.matcher;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An aho-corasick automaton compiled into primitive double-array(base/check) tables over an alphabet of int codes.
+ * This class is shared by the character and UTF-8 byte matchers, both mapping the characters of their input into the codes.
+ */
+final class DoubleArrayAutomaton {
+
+    static final int ROOT = 0;
+    private static final int FREE = -1;
+
+    /**
+     * Double-array transition tables - state t is a child of state s by code c if t == base[s] + c and check[t] == s
+     */
+    private final int[] base;
+    private final int[] check;
+    /**
+     * Failure links of each state
+     */
+    private final int[] fail;
+    /**
+     * Start index of the output run of each state in outputs (-1 means no output)
+     */
+    private final int[] output;
+    /**
+     * Term ids emitted by each state including the outputs of its failure chain, each run terminated with -1 (Synonyms emit the id of their canonical term)
+     */
+    private final int[] outputs;
+    /**
+     * The number of distinct sequences
+     */
+    private final int size;
+
+    /**
+     * Default Constructor
+     * @param sequences The code sequences of the patterns (Every code must be positive)
+     * @param termIds The term id emitted for each sequence
+     * @param alphabet The largest code
+     */
+    DoubleArrayAutomaton(int[][] sequences, int[] termIds, int alphabet){
+        final Node root = new Node();
+        int count = 0;
+
+        for(int i = 0; i < sequences.length; i++){
+            if(sequences[i].length == 0) continue;
+            Node node = root;
+            for(int code : sequences[i]) node = node.child(code);
+            if(!node.terminal){
+                node.terminal = true;
+                count++;
+            }
+            if(!node.ids.contains(termIds[i])) node.ids.add(termIds[i]);
+        }
+        this.size = count;
+
+        /**
+         * Placing the states in breadth-first order
+         */
+        final List<Node> order = new ArrayList<>();
+        int[] base = new int[Math.max(alphabet * 2, 16)];
+        int[] check = new int[base.length];
+        Arrays.fill(check, FREE);
+        check[ROOT] = ROOT;
+        root.state = ROOT;
+        order.add(root);
+        int firstFree = 1;
+        int last = ROOT;
+
+        for(int n = 0; n < order.size(); n++){
+            final Node node = order.get(n);
+            if(node.children.isEmpty()) continue;
+            final int first = node.children.firstKey();
+            while(firstFree < check.length && check[firstFree] != FREE) firstFree++;
+            int b = Math.max(firstFree - first, 1);
+            while(true){
+                final int required = b + node.children.lastKey() + 1;
+                if(required > check.length){
+                    final int oldLength = check.length;
+                    base = Arrays.copyOf(base, Math.max(required, oldLength * 2));
+                    check = Arrays.copyOf(check, base.length);
+                    Arrays.fill(check, oldLength, check.length, FREE);
+                }
+                boolean fits = true;
+                for(int code : node.children.keySet()){
+                    if(check[b + code] != FREE){
+                        fits = false;
+                        break;
+                    }
+                }
+                if(fits) break;
+                b++;
+            }
+            base[node.state] = b;
+            for(Map.Entry<Integer, Node> e : node.children.entrySet()){
+                final int t = b + e.getKey();
+                check[t] = node.state;
+                e.getValue().state = t;
+                if(t > last) last = t;
+                order.add(e.getValue());
+            }
+        }
+
+        this.base = Arrays.copyOf(base, last + 1);
+        this.check = Arrays.copyOf(check, last + 1);
+        this.fail = new int[last + 1];
+
+        /**
+         * Linking failure states and merging the outputs of the failure chain (Parents precede children in BFS order)
+         */
+        final int[][] emits = new int[last + 1][];
+        int pool = 0;
+        for(Node node : order){
+            final int s = node.state;
+            for(Map.Entry<Integer, Node> e : node.children.entrySet()){
+                final int t = e.getValue().state;
+                if(s == ROOT){
+                    fail[t] = ROOT;
+                }else{
+                    int f = fail[s];
+                    int next;
+                    while((next = transition(f, e.getKey())) < 0 && f != ROOT) f = fail[f];
+                    fail[t] = next < 0 ? ROOT : next;
+                }
+            }
+            final int[] inherited = s == ROOT ? null : emits[fail[s]];
+            if(inherited != null){
+                for(int id : inherited){
+                    if(!node.ids.contains(id)) node.ids.add(id);
+                }
+            }
+            if(!node.ids.isEmpty()){
+                final int[] merged = new int[node.ids.size()];
+                for(int k = 0; k < merged.length; k++) merged[k] = node.ids.get(k);
+                emits[s] = merged;
+                pool += merged.length + 1;
+            }
+        }
+
+        this.output = new int[last + 1];
+        this.outputs = new int[pool];
+        Arrays.fill(this.output, -1);
+        int cursor = 0;
+        for(int s = 0; s <= last; s++){
+            if(emits[s] == null) continue;
+            this.output[s] = cursor;
+            for(int id : emits[s]) this.outputs[cursor++] = id;
+            this.outputs[cursor++] = -1;
+        }
+    }
+
+    /**
+     * A method for retrieving the child state
+     * @param state The current state
+     * @param code The alphabet code
+     * @return The child state (-1 if not existing)
+     */
+    int transition(int state, int code){
+        final int t = base[state] + code;
+        return (t < check.length && check[t] == state) ? t : -1;
+    }
+
+    /**
+     * A method for moving to the next state following the failure links
+     * @param state The current state
+     * @param code The alphabet code of the next symbol
+     * @return The next state
+     */
+    int step(int state, int code){
+        int next;
+        while((next = transition(state, code)) < 0 && state != ROOT) state = fail[state];
+        return next < 0 ? ROOT : next;
+    }
+
+    /**
+     * A method for reporting the outputs of a state
+     * @param state The current state
+     * @param offset The offset of the current symbol
+     * @param handler The callback receiving the matched term ids
+     */
+    void emit(int state, int offset, MatchHandler handler){
+        for(int o = output[state]; o >= 0 && outputs[o] >= 0; o++){
+            handler.onMatch(outputs[o], offset);
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * A Pointer based trie node used only while compiling
+     */
+    private static class Node {
+        private final TreeMap<Integer, Node> children = new TreeMap<>();
+        private final List<Integer> ids = new ArrayList<>(1);
+        private boolean terminal;
+        private int state;
+
+        private Node child(int code){
+            Node node = children.get(code);
+            if(node == null){
+                node = new Node();
+                children.put(code, node);
+            }
+            return node;
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package cluster.normalization.matcher;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An aho-corasick automaton compiled into primitive double-array(base/check) tables. Scanning a text allocates nothing.
+ * The case of characters is folded while scanning through the alphabet code table, so case-ignoring matching needs no lowercased copy of the text.
+ */
+public class DoubleArrayMatcher implements IMatcher {
+
+    /**
+     * Character to alphabet code table (0 means the character is not in the alphabet) - All the cases of a character share a code when case is ignored
+     */
+    final char[] codes;
+    final DoubleArrayAutomaton automaton;
+
+    /**
+     * Default Constructor
+     * @param patterns The patterns to compile
+     * @param termIds The term id emitted for each pattern
+     * @param caseSensitive false if the case of characters should be ignored
+     */
+    public DoubleArrayMatcher(String[] patterns, int[] termIds, boolean caseSensitive){
+        final char[] codes = new char[Character.MAX_VALUE + 1];
+        final int[][] sequences = new int[patterns.length][];
+        int alphabet = 0;
+
+        for(int i = 0; i < patterns.length; i++){
+            final String pattern = patterns[i];
+            sequences[i] = new int[pattern.length()];
+            for(int j = 0; j < pattern.length(); j++){
+                final char ch = caseSensitive ? pattern.charAt(j) : CaseFolding.fold(pattern.charAt(j));
+                if(codes[ch] == 0) codes[ch] = (char) ++alphabet;
+                sequences[i][j] = codes[ch];
+            }
+        }
+
+        /**
+         * Every case of a folded character is mapped to the code of the folded character
+         */
+        if(!caseSensitive){
+            for(int c = 0; c <= Character.MAX_VALUE; c++){
+                if(codes[c] == 0) codes[c] = codes[CaseFolding.fold((char) c)];
+            }
+        }
+        this.codes = codes;
+        this.automaton = new DoubleArrayAutomaton(sequences, termIds, alphabet);
+    }
+
+    @Override
+    public void match(CharSequence text, MatchHandler handler) {
+        final DoubleArrayAutomaton automaton = this.automaton;
+        final int length = text.length();
+        int state = DoubleArrayAutomaton.ROOT;
+        for(int i = 0; i < length; i++){
+            final int code = codes[text.charAt(i)];
+            if(code == 0){
+                state = DoubleArrayAutomaton.ROOT;
+                continue;
+            }
+            state = automaton.step(state, code);
+            automaton.emit(state, i, handler);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.automaton.size();
+    }
+
+}
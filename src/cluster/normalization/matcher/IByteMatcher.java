@@ -0,0 +1,25 @@
+package cluster.normalization.matcher;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An interface for designing a compiled multi-pattern matcher scanning UTF-8 encoded bytes (Implementations must be immutable and thread-safe)
+ */
+public interface IByteMatcher {
+
+    /**
+     * A Method for scanning the remaining bytes of a buffer and reporting every occurrence of the compiled terms - The position of the buffer is not changed
+     * @param utf8 The UTF-8 encoded text (heap, direct or mapped buffer)
+     * @param handler The callback receiving the matched term ids with the absolute index of the last byte of the match
+     */
+    void match(ByteBuffer utf8, MatchHandler handler);
+
+    /**
+     * A Method for retrieving the number of compiled patterns
+     * @return The number of patterns
+     */
+    int size();
+
+}
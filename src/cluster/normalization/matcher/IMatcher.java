@@ -0,0 +1,23 @@
+package cluster.normalization.matcher;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An interface for designing a compiled multi-pattern matcher (Implementations must be immutable and thread-safe)
+ */
+public interface IMatcher {
+
+    /**
+     * A Method for scanning a text and reporting every occurrence of the compiled terms
+     * @param text The text to scan
+     * @param handler The callback receiving the matched term ids
+     */
+    void match(CharSequence text, MatchHandler handler);
+
+    /**
+     * A Method for retrieving the number of compiled patterns
+     * @return The number of patterns
+     */
+    int size();
+
+}
@@ -0,0 +1,17 @@
+package cluster.normalization.matcher;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A primitive callback interface which receives the matches of IMatcher without allocating objects
+ */
+public interface MatchHandler {
+
+    /**
+     * A Method called on every match
+     * @param termId The term id of the matched pattern
+     * @param offset The offset of the last character of the match in the text
+     */
+    void onMatch(int termId, int offset);
+
+}
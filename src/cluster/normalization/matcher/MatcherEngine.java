@@ -0,0 +1,26 @@
+package cluster.normalization.matcher;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An Enumeration class to select the engine of the compiled matcher
+ */
+public enum MatcherEngine {
+    AHO_CORASICK, // org.ahocorasick trie (Allocates emits on every scan)
+    DOUBLE_ARRAY; // Built-in double-array trie (Allocation-free scan)
+
+    /**
+     * A Method for compiling patterns into a new matcher of this engine
+     * @param patterns The patterns to compile
+     * @param ids The term id emitted for each pattern (Several patterns may share an id)
+     * @param caseSensitive false if the case of characters should be ignored
+     * @return A new matcher instance
+     */
+    public IMatcher compile(String[] patterns, int[] ids, boolean caseSensitive){
+        switch (this){
+            case AHO_CORASICK: return new AhoCorasickMatcher(patterns, ids, caseSensitive);
+            case DOUBLE_ARRAY: return new DoubleArrayMatcher(patterns, ids, caseSensitive);
+            default: throw new IllegalStateException("Unknown engine : " + this);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package cluster.normalization.matcher;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Matcher scanning UTF-8 encoded bytes directly. Each UTF-8 sequence is assembled into its UTF-16 code units in registers
+ * and fed to the character automaton, so that no decoded copy of the text is ever built. Malformed sequences reset the automaton.
+ */
+public class Utf8Matcher implements IByteMatcher {
+
+    private final char[] codes;
+    private final DoubleArrayAutomaton automaton;
+
+    /**
+     * Default Constructor
+     * @param patterns The patterns to compile
+     * @param termIds The term id emitted for each pattern
+     * @param caseSensitive false if the case of characters should be ignored
+     */
+    public Utf8Matcher(String[] patterns, int[] termIds, boolean caseSensitive){
+        final DoubleArrayMatcher matcher = new DoubleArrayMatcher(patterns, termIds, caseSensitive);
+        this.codes = matcher.codes;
+        this.automaton = matcher.automaton;
+    }
+
+    @Override
+    public void match(ByteBuffer utf8, MatchHandler handler) {
+        if(utf8.hasArray()){
+            final int offset = utf8.arrayOffset();
+            match(utf8.array(), offset + utf8.position(), offset + utf8.limit(), offset, handler);
+        }else{
+            match(utf8, utf8.position(), utf8.limit(), handler);
+        }
+    }
+
+    /**
+     * A Method for scanning a range of a byte array
+     * @param utf8 The UTF-8 encoded text
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param base The index subtracted from the reported offsets
+     * @param handler The callback receiving the matched term ids
+     */
+    private void match(byte[] utf8, int from, int to, int base, MatchHandler handler){
+        int state = DoubleArrayAutomaton.ROOT;
+        int i = from;
+        while(i < to){
+            final int lead = utf8[i] & 0xFF;
+            if(lead < 0x80){
+                state = step(state, lead, i - base, handler);
+                i++;
+            }else if(lead >= 0xC2 && lead < 0xE0 && i + 1 < to && isContinuation(utf8[i + 1])){
+                state = step(state, ((lead & 0x1F) << 6) | (utf8[i + 1] & 0x3F), i + 1 - base, handler);
+                i += 2;
+            }else if(lead >= 0xE0 && lead < 0xF0 && i + 2 < to && isContinuation(utf8[i + 1]) && isContinuation(utf8[i + 2])){
+                state = step(state, ((lead & 0x0F) << 12) | ((utf8[i + 1] & 0x3F) << 6) | (utf8[i + 2] & 0x3F), i + 2 - base, handler);
+                i += 3;
+            }else if(lead >= 0xF0 && lead < 0xF5 && i + 3 < to && isContinuation(utf8[i + 1]) && isContinuation(utf8[i + 2]) && isContinuation(utf8[i + 3])){
+                final int codePoint = ((lead & 0x07) << 18) | ((utf8[i + 1] & 0x3F) << 12) | ((utf8[i + 2] & 0x3F) << 6) | (utf8[i + 3] & 0x3F);
+                state = step(state, Character.highSurrogate(codePoint), i + 3 - base, handler);
+                state = step(state, Character.lowSurrogate(codePoint), i + 3 - base, handler);
+                i += 4;
+            }else{
+                /**
+                 * A malformed or truncated sequence - The scan resumes at the next byte, so an ASCII byte after a stray lead byte is still matched
+                 */
+                state = DoubleArrayAutomaton.ROOT;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * A Method for scanning a range of a buffer with absolute access (direct or mapped buffer)
+     * @param utf8 The UTF-8 encoded text
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param handler The callback receiving the matched term ids
+     */
+    private void match(ByteBuffer utf8, int from, int to, MatchHandler handler){
+        int state = DoubleArrayAutomaton.ROOT;
+        int i = from;
+        while(i < to){
+            final int lead = utf8.get(i) & 0xFF;
+            if(lead < 0x80){
+                state = step(state, lead, i, handler);
+                i++;
+            }else if(lead >= 0xC2 && lead < 0xE0 && i + 1 < to && isContinuation(utf8.get(i + 1))){
+                state = step(state, ((lead & 0x1F) << 6) | (utf8.get(i + 1) & 0x3F), i + 1, handler);
+                i += 2;
+            }else if(lead >= 0xE0 && lead < 0xF0 && i + 2 < to && isContinuation(utf8.get(i + 1)) && isContinuation(utf8.get(i + 2))){
+                state = step(state, ((lead & 0x0F) << 12) | ((utf8.get(i + 1) & 0x3F) << 6) | (utf8.get(i + 2) & 0x3F), i + 2, handler);
+                i += 3;
+            }else if(lead >= 0xF0 && lead < 0xF5 && i + 3 < to && isContinuation(utf8.get(i + 1)) && isContinuation(utf8.get(i + 2)) && isContinuation(utf8.get(i + 3))){
+                final int codePoint = ((lead & 0x07) << 18) | ((utf8.get(i + 1) & 0x3F) << 12) | ((utf8.get(i + 2) & 0x3F) << 6) | (utf8.get(i + 3) & 0x3F);
+                state = step(state, Character.highSurrogate(codePoint), i + 3, handler);
+                state = step(state, Character.lowSurrogate(codePoint), i + 3, handler);
+                i += 4;
+            }else{
+                /**
+                 * A malformed or truncated sequence - The scan resumes at the next byte, so an ASCII byte after a stray lead byte is still matched
+                 */
+                state = DoubleArrayAutomaton.ROOT;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * A method for checking if a byte is a continuation byte of a UTF-8 sequence (10xxxxxx)
+     */
+    private static boolean isContinuation(byte b){
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * A method for feeding a UTF-16 code unit to the automaton
+     * @param state The current state
+     * @param unit The code unit
+     * @param offset The offset of the last byte of the character
+     * @param handler The callback receiving the matched term ids
+     * @return The next state
+     */
+    private int step(int state, int unit, int offset, MatchHandler handler){
+        final int code = codes[unit & 0xFFFF];
+        if(code == 0) return DoubleArrayAutomaton.ROOT;
+        final int next = automaton.step(state, code);
+        automaton.emit(next, offset, handler);
+        return next;
+    }
+
+    @Override
+    public int size() {
+        return this.automaton.size();
+    }
+
+}
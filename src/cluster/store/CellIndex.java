@@ -0,0 +1,85 @@
+package cluster.store;
+
+import cluster.CellKey;
+import cluster.collection.LongObjectMap;
+import cluster.constants.FlagState;
+
+import java.util.Arrays;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description Secondary indexes of the cells of a sparse cluster by category, detail and keyword.
+ * Each term id keeps a posting list of the packed keys of the cells it belongs to, appended once when a cell is created,
+ * so that a scoped query costs the size of its result instead of the number of every cell. (Thread-Safe)
+ */
+public class CellIndex {
+
+    private final LongObjectMap<Postings> categories = new LongObjectMap<>();
+    private final LongObjectMap<Postings> details = new LongObjectMap<>();
+    private final LongObjectMap<Postings> keywords = new LongObjectMap<>();
+
+    /**
+     * A method for indexing a created cell - A cell must be indexed only once
+     * @param key The packed key of the cell
+     */
+    public void add(long key){
+        postings(this.categories, CellKey.category(key)).add(key);
+        postings(this.details, CellKey.detail(key)).add(key);
+        postings(this.keywords, CellKey.keyword(key)).add(key);
+    }
+
+    /**
+     * A method for retrieving the cells of a term
+     * @param role The dimension of the term - CATEGORY, DETAIL or KEYWORD
+     * @param termId The term id
+     * @return The packed keys of the cells in creation order (Empty if the term has no cell)
+     * @throws IllegalArgumentException when the role is NOTHING
+     */
+    public long[] keysOf(FlagState role, int termId) throws IllegalArgumentException{
+        final Postings postings = indexOf(role).get(termId);
+        return postings == null ? new long[0] : postings.toArray();
+    }
+
+    /**
+     * A method for removing every posting list
+     */
+    public void clear(){
+        this.categories.clear();
+        this.details.clear();
+        this.keywords.clear();
+    }
+
+    private LongObjectMap<Postings> indexOf(FlagState role) throws IllegalArgumentException{
+        switch (role){
+            case CATEGORY: return this.categories;
+            case DETAIL: return this.details;
+            case KEYWORD: return this.keywords;
+            default: throw new IllegalArgumentException("The cells are not indexed by " + role);
+        }
+    }
+
+    private static Postings postings(LongObjectMap<Postings> index, int termId){
+        final Postings postings = index.get(termId);
+        return postings != null ? postings : index.computeIfAbsent(termId, k -> new Postings());
+    }
+
+    /**
+     * A growable list of packed cell keys
+     */
+    private static final class Postings {
+
+        private long[] keys = new long[4];
+        private int size;
+
+        synchronized void add(long key){
+            if(size == keys.length) keys = Arrays.copyOf(keys, size << 1);
+            keys[size++] = key;
+        }
+
+        synchronized long[] toArray(){
+            return Arrays.copyOf(keys, size);
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package cluster.store;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A primitive callback interface visiting the counted cells of a store without allocating objects
+ */
+public interface CellVisitor {
+
+    /**
+     * A Method called on every counted cell
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @param count The count of the cell
+     */
+    void visit(int category, int detail, int keyword, long count);
+
+}
@@ -0,0 +1,124 @@
+package cluster.store;
+
+import cluster.CellKey;
+import cluster.collection.LongLongMap;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A sparse symmetric keyword x keyword co-occurrence matrix of the categories. A pair is keyed by the packed term ids of
+ * (category, the smaller keyword, the larger keyword), and the keys are spread over striped primitive maps,
+ * so that a pair is counted with a single probe under the monitor of its stripe without boxing or entry objects. (Thread-Safe)
+ */
+public class CooccurrenceMatrix {
+
+    private static final int STRIPES = 64;
+
+    private final LongLongMap[] stripes = new LongLongMap[STRIPES];
+
+    /**
+     * Default Constructor
+     */
+    public CooccurrenceMatrix(){
+        for(int i = 0; i < STRIPES; i++) stripes[i] = new LongLongMap();
+    }
+
+    /**
+     * A method for counting the pairs of the keywords of a document
+     * @param category Category id
+     * @param keywords Distinct keyword ids in ascending order
+     * @param size The number of keywords in the array
+     */
+    public void addAll(int category, int[] keywords, int size){
+        for(int i = 0; i < size; i++){
+            for(int j = i + 1; j < size; j++) add(CellKey.pack(category, keywords[i], keywords[j]), 1);
+        }
+    }
+
+    /**
+     * A method for counting a pair
+     * @param key The packed key of the pair (Refer keyOf())
+     * @param hits The number of documents
+     */
+    public void add(long key, long hits){
+        final LongLongMap stripe = stripes[stripeOf(key)];
+        synchronized (stripe){
+            stripe.add(key, hits);
+        }
+    }
+
+    /**
+     * A method for packing a pair - The keywords are ordered, so that both orders address the same pair
+     * @return The packed key
+     */
+    public static long keyOf(int category, int keyword, int other){
+        return keyword < other ? CellKey.pack(category, keyword, other) : CellKey.pack(category, other, keyword);
+    }
+
+    /**
+     * A method for retrieving the number of documents containing both keywords of a pair
+     * @return The count (0 if the pair never co-occurred)
+     */
+    public long get(int category, int keyword, int other){
+        final long key = keyOf(category, keyword, other);
+        final LongLongMap stripe = stripes[stripeOf(key)];
+        synchronized (stripe){
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * A method for visiting the most frequent pairs of a category in descending order of count
+     * @param category Category id
+     * @param keyword The keyword id which the pairs must contain (A negative id for every pair)
+     * @param limit The largest number of pairs
+     * @param visitor The visitor receiving the packed key and the count of each pair
+     */
+    public void forEachTop(int category, int keyword, int limit, LongLongMap.Visitor visitor){
+        if(limit < 1) return;
+        /**
+         * A bounded min-heap keeps the best pairs seen so far, so the selection takes O(pairs * log(limit))
+         */
+        final PriorityQueue<long[]> heap = new PriorityQueue<>(limit, (a, b) -> Long.compare(a[1], b[1]));
+        for(LongLongMap stripe : stripes){
+            synchronized (stripe){
+                stripe.forEach((key, count) -> {
+                    if(CellKey.category(key) != category) return;
+                    if(keyword >= 0 && CellKey.detail(key) != keyword && CellKey.keyword(key) != keyword) return;
+                    if(heap.size() < limit) heap.add(new long[]{key, count});
+                    else if(heap.peek()[1] < count){
+                        heap.poll();
+                        heap.add(new long[]{key, count});
+                    }
+                });
+            }
+        }
+        final long[][] top = heap.toArray(new long[heap.size()][]);
+        Arrays.sort(top, (a, b) -> Long.compare(b[1], a[1]));
+        for(long[] pair : top) visitor.visit(pair[0], pair[1]);
+    }
+
+    /**
+     * The number of distinct pairs
+     */
+    public int size(){
+        int size = 0;
+        for(LongLongMap stripe : stripes){
+            synchronized (stripe){
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static int stripeOf(long key){
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & (STRIPES - 1);
+    }
+
+}
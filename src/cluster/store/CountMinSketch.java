@@ -0,0 +1,121 @@
+package cluster.store;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Count-Min sketch of the counts of packed cell keys with conservative update. The memory is fixed by the width and the depth
+ * regardless of how many distinct cells are counted. An estimate never underestimates, and with the probability of getConfidence()
+ * it overestimates by at most getErrorBound(), that is e / width of the total hits. (Thread-Safe)
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    /**
+     * The counters of the rows laid out row by row
+     */
+    private final long[] table;
+    /**
+     * The sum of every counted hit
+     */
+    private long total;
+
+    /**
+     * Default Constructor
+     * @param width The number of counters per row. e.g) 65536 for an error of 0.004% of the total hits
+     * @param depth The number of rows. e.g) 4 for the confidence of 98%
+     * @throws IllegalArgumentException when a dimension is not positive or the table cannot be indexed with int
+     */
+    public CountMinSketch(int width, int depth) throws IllegalArgumentException{
+        if(width < 1 || depth < 1 || (long) width * depth > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException(String.format("The sketch of %d x %d counters is not valid.", width, depth));
+        }
+        this.width = width;
+        this.depth = depth;
+        this.table = new long[width * depth];
+    }
+
+    /**
+     * A method for computing the size of the table of a sketch
+     * @return The size in bytes
+     */
+    public static long bytesOf(int width, int depth){
+        return (long) width * depth * Long.BYTES;
+    }
+
+    /**
+     * A method for counting hits of a key - Conservative update only raises the counters below the new estimate,
+     * which keeps the estimates as tight as possible without underestimating
+     * @param key The packed key of the cell
+     * @param hits The positive number of hits
+     */
+    public synchronized void add(long key, long hits){
+        final int h1 = hash(key), h2 = hash(key ^ 0x9E3779B97F4A7C15L) | 1;
+        long estimate = Long.MAX_VALUE;
+        for(int row = 0; row < depth; row++) estimate = Math.min(estimate, table[slot(row, h1, h2)]);
+        final long target = estimate + hits;
+        for(int row = 0; row < depth; row++){
+            final int slot = slot(row, h1, h2);
+            if(table[slot] < target) table[slot] = target;
+        }
+        total += hits;
+    }
+
+    /**
+     * A method for estimating the count of a key
+     * @param key The packed key of the cell
+     * @return The estimate (Never below the true count)
+     */
+    public synchronized long estimate(long key){
+        final int h1 = hash(key), h2 = hash(key ^ 0x9E3779B97F4A7C15L) | 1;
+        long estimate = Long.MAX_VALUE;
+        for(int row = 0; row < depth; row++) estimate = Math.min(estimate, table[slot(row, h1, h2)]);
+        return estimate;
+    }
+
+    /**
+     * The largest overestimation of an estimate with the probability of getConfidence()
+     */
+    public synchronized long getErrorBound(){
+        return (long) Math.ceil(Math.E * total / width);
+    }
+
+    /**
+     * The probability that an estimate is within the error bound
+     */
+    public double getConfidence(){
+        return 1 - Math.exp(-depth);
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * The counter of a key in a row - The hash of each row is derived from two hashes (Kirsch-Mitzenmacher)
+     */
+    private int slot(int row, int h1, int h2){
+        return row * width + Math.floorMod(h1 + row * h2, width);
+    }
+
+    /**
+     * The finalizer of MurmurHash3 spreading the bits of packed keys
+     */
+    private static int hash(long key){
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+}
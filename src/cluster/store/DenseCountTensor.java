@@ -0,0 +1,218 @@
+package cluster.store;
+
+import cluster.constants.FlagState;
+import target.Target;
+import target.TermDictionary;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A flat (category x detail x keyword) count tensor preallocated from the terms of a target.
+ * A cell is addressed arithmetically from its term ids and counted with a single atomic add, without hashing or cell objects. (Thread-Safe)
+ */
+public class DenseCountTensor {
+
+    private static final int ABSENT = -1;
+
+    /**
+     * The dictionary whose ids index this tensor
+     */
+    private final TermDictionary dictionary;
+    /**
+     * Term id to position arrays of each dimension (ABSENT if the term has not the role of the dimension)
+     */
+    private final int[] categoryIndex;
+    private final int[] detailIndex;
+    private final int[] keywordIndex;
+    /**
+     * Position to term id arrays of each dimension
+     */
+    private final int[] categories;
+    private final int[] details;
+    private final int[] keywords;
+    private final AtomicLongArray counts;
+
+    /**
+     * Default Constructor - The detail dimension holds every detail and the none-categorized placeholder
+     * @param target The target
+     * @throws IllegalArgumentException when the tensor cannot be indexed with int
+     */
+    public DenseCountTensor(Target target) throws IllegalArgumentException{
+        this.dictionary = target.getDictionary();
+        final int size = this.dictionary.size();
+        this.categoryIndex = new int[size];
+        this.detailIndex = new int[size];
+        this.keywordIndex = new int[size];
+        Arrays.fill(this.categoryIndex, ABSENT);
+        Arrays.fill(this.detailIndex, ABSENT);
+        Arrays.fill(this.keywordIndex, ABSENT);
+
+        this.categories = positions(target, FlagState.CATEGORY, this.categoryIndex, ABSENT);
+        this.details = positions(target, FlagState.DETAIL, this.detailIndex, target.getNotCategorizedId());
+        this.keywords = positions(target, FlagState.KEYWORD, this.keywordIndex, ABSENT);
+
+        final long cells = cellsOf(target);
+        if(cells > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("The tensor of " + cells + " cells cannot be indexed.");
+        this.counts = new AtomicLongArray((int) cells);
+    }
+
+    /**
+     * A method for assigning the positions of the terms having a role
+     * @param extra The term placed first regardless of its role (ABSENT if there is none)
+     * @return Position to term id array
+     */
+    private static int[] positions(Target target, FlagState role, int[] index, int extra){
+        final TermDictionary dictionary = target.getDictionary();
+        final int[] terms = new int[dictionary.size()];
+        int count = 0;
+        if(extra != ABSENT){
+            index[extra] = count;
+            terms[count++] = extra;
+        }
+        for(int i = 0; i < dictionary.size(); i++){
+            if(i == extra || !dictionary.isLive(i) || (target.getRoles(i) & role.mask()) == 0) continue;
+            index[i] = count;
+            terms[count++] = i;
+        }
+        return Arrays.copyOf(terms, count);
+    }
+
+    /**
+     * A method for computing the number of cells of the tensor of a target without allocating it
+     * @param target The target
+     * @return The number of cells
+     */
+    public static long cellsOf(Target target){
+        final TermDictionary dictionary = target.getDictionary();
+        long categories = 0, details = 1, keywords = 0;
+        for(int i = 0; i < dictionary.size(); i++){
+            if(!dictionary.isLive(i)) continue;
+            final int roles = target.getRoles(i);
+            if((roles & FlagState.CATEGORY.mask()) != 0) categories++;
+            if((roles & FlagState.DETAIL.mask()) != 0) details++;
+            if((roles & FlagState.KEYWORD.mask()) != 0) keywords++;
+        }
+        return categories * details * keywords;
+    }
+
+    /**
+     * A method for computing the memory of the counts of the tensor of a target
+     * @param target The target
+     * @return The size in bytes
+     */
+    public static long bytesOf(Target target){
+        return cellsOf(target) * Long.BYTES;
+    }
+
+    /**
+     * A method for computing the position of a cell
+     * @return The position (ABSENT if a term has not the role of its dimension)
+     */
+    private int indexOf(int category, int detail, int keyword){
+        if(category < 0 || detail < 0 || keyword < 0 || category >= categoryIndex.length || detail >= detailIndex.length || keyword >= keywordIndex.length) return ABSENT;
+        final int c = categoryIndex[category], d = detailIndex[detail], k = keywordIndex[keyword];
+        if(c == ABSENT || d == ABSENT || k == ABSENT) return ABSENT;
+        return (c * details.length + d) * keywords.length + k;
+    }
+
+    /**
+     * A method for adding to the count of a cell
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @param delta The amount to add
+     * @throws IllegalArgumentException when the ids do not address a cell of the tensor
+     */
+    public void add(int category, int detail, int keyword, long delta) throws IllegalArgumentException{
+        final int index = indexOf(category, detail, keyword);
+        if(index == ABSENT){
+            throw new IllegalArgumentException(String.format("The term ids [%d, %d, %d] do not address a cell of the tensor", category, detail, keyword));
+        }
+        this.counts.addAndGet(index, delta);
+    }
+
+    /**
+     * A method for retrieving the count of a cell
+     * @param category Category id
+     * @param detail Detail Category id
+     * @param keyword Keyword id
+     * @return The count (0 if the ids do not address a cell)
+     */
+    public long get(int category, int detail, int keyword){
+        final int index = indexOf(category, detail, keyword);
+        return index == ABSENT ? 0 : this.counts.get(index);
+    }
+
+    /**
+     * A method for visiting the cells having a positive count
+     * @param visitor The visitor
+     */
+    public void forEach(CellVisitor visitor){
+        final int perCategory = details.length * keywords.length;
+        for(int i = 0; i < this.counts.length(); i++){
+            final long count = this.counts.get(i);
+            if(count == 0) continue;
+            visitor.visit(categories[i / perCategory], details[(i / keywords.length) % details.length], keywords[i % keywords.length], count);
+        }
+    }
+
+    /**
+     * A method for visiting the cells of a term having a positive count - Only the slice of the term is scanned
+     * @param role The dimension of the term - CATEGORY, DETAIL or KEYWORD
+     * @param termId The term id
+     * @param visitor The visitor
+     * @throws IllegalArgumentException when the role is NOTHING
+     */
+    public void forEach(FlagState role, int termId, CellVisitor visitor) throws IllegalArgumentException{
+        final int[] index;
+        switch (role){
+            case CATEGORY: index = categoryIndex; break;
+            case DETAIL: index = detailIndex; break;
+            case KEYWORD: index = keywordIndex; break;
+            default: throw new IllegalArgumentException("The cells are not indexed by " + role);
+        }
+        if(termId < 0 || termId >= index.length || index[termId] == ABSENT) return;
+        final int position = index[termId];
+        final int fromC = role == FlagState.CATEGORY ? position : 0, toC = role == FlagState.CATEGORY ? position + 1 : categories.length;
+        final int fromD = role == FlagState.DETAIL ? position : 0, toD = role == FlagState.DETAIL ? position + 1 : details.length;
+        final int fromK = role == FlagState.KEYWORD ? position : 0, toK = role == FlagState.KEYWORD ? position + 1 : keywords.length;
+        for(int c = fromC; c < toC; c++){
+            for(int d = fromD; d < toD; d++){
+                final int base = (c * details.length + d) * keywords.length;
+                for(int k = fromK; k < toK; k++){
+                    final long count = this.counts.get(base + k);
+                    if(count != 0) visitor.visit(categories[c], details[d], keywords[k], count);
+                }
+            }
+        }
+    }
+
+    /**
+     * A method for counting the cells having a positive count
+     * @return The number of non-empty cells
+     */
+    public int size(){
+        int size = 0;
+        for(int i = 0; i < this.counts.length(); i++) if(this.counts.get(i) != 0) size++;
+        return size;
+    }
+
+    /**
+     * A method for resetting every count
+     */
+    public void clear(){
+        for(int i = 0; i < this.counts.length(); i++) this.counts.set(i, 0);
+    }
+
+    public int capacity(){
+        return this.counts.length();
+    }
+
+    public TermDictionary getDictionary() {
+        return dictionary;
+    }
+
+}
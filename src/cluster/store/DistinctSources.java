@@ -0,0 +1,85 @@
+package cluster.store;
+
+import cluster.collection.LongObjectMap;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description The distinct-source sketches of the cells keyed by the packed term ids - Every cell offered a source keeps a HyperLogLog sketch
+ * of 2^precision bytes, so the memory grows with the number of distinct cells whatever the storage mode of the counts is. (Thread-Safe)
+ */
+public class DistinctSources {
+
+    private final int precision;
+    private final LongObjectMap<HyperLogLog> sketches = new LongObjectMap<>();
+
+    /**
+     * Default Constructor
+     * @param precision The precision of the sketches. e.g) 8 for 256 bytes per cell
+     * @throws IllegalArgumentException when the precision is out of the range of HyperLogLog
+     */
+    public DistinctSources(int precision) throws IllegalArgumentException{
+        new HyperLogLog(precision);
+        this.precision = precision;
+    }
+
+    /**
+     * A method for offering the source of a document to the sketch of a cell, creating the sketch atomically when it is absent
+     * @param key The packed key of the cell
+     * @param sourceHash The 64-bit hash of the source (Refer HyperLogLog.hash())
+     */
+    public void offer(long key, long sourceHash){
+        HyperLogLog sketch = this.sketches.get(key);
+        if(sketch == null) sketch = this.sketches.computeIfAbsent(key, k -> new HyperLogLog(this.precision));
+        sketch.offer(sourceHash);
+    }
+
+    /**
+     * A method for merging a sketch into the sketch of a cell
+     * @param key The packed key of the cell
+     * @param sketch The sketch of the same precision
+     * @throws IllegalArgumentException when the precisions differ
+     */
+    public void merge(long key, HyperLogLog sketch) throws IllegalArgumentException{
+        checkPrecision(sketch);
+        this.sketches.computeIfAbsent(key, k -> new HyperLogLog(this.precision)).merge(sketch);
+    }
+
+    /**
+     * A method for checking if a sketch can be merged into these sketches
+     * @param sketch The sketch
+     * @throws IllegalArgumentException when the precisions differ
+     */
+    public void checkPrecision(HyperLogLog sketch) throws IllegalArgumentException{
+        if(sketch.getPrecision() != this.precision){
+            throw new IllegalArgumentException(String.format("The sketches of the precision %d and %d cannot be merged.", this.precision, sketch.getPrecision()));
+        }
+    }
+
+    /**
+     * A method for copying the sketch of a cell
+     * @param key The packed key of the cell
+     * @return The copy which does not follow the later offers (null if the cell has no sketch)
+     */
+    public HyperLogLog copyOf(long key){
+        final HyperLogLog sketch = this.sketches.get(key);
+        return sketch == null ? null : sketch.copy();
+    }
+
+    /**
+     * A method for visiting the sketch of every cell - The sketches are visited as they are, so they must not be modified
+     * @param visitor The visitor receiving the packed key and the sketch of each cell
+     */
+    public void forEach(LongObjectMap.Visitor<? super HyperLogLog> visitor){
+        this.sketches.forEach(visitor);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int size(){
+        return this.sketches.size();
+    }
+
+}
@@ -0,0 +1,164 @@
+package cluster.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A HyperLogLog sketch estimating the number of distinct items offered as 64-bit hashes with 2^precision one-byte registers.
+ * The standard error is 1.04 / sqrt(2^precision), and sketches of the same precision are merged losslessly by taking the larger registers,
+ * so that the sketches of several threads or nodes can be combined in any order. (Thread-Safe)
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Default Constructor
+     * @param precision The number of index bits (4 to 16). e.g) 8 for 256 bytes with the standard error of 6.5%
+     * @throws IllegalArgumentException when the precision is out of range
+     */
+    public HyperLogLog(int precision) throws IllegalArgumentException{
+        if(precision < MIN_PRECISION || precision > MAX_PRECISION){
+            throw new IllegalArgumentException(String.format("The precision must be %d to %d : %d", MIN_PRECISION, MAX_PRECISION, precision));
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(int precision, byte[] registers){
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    /**
+     * A method for hashing a string item such as a source id into 64 bits (FNV-1a over UTF-8 followed by the MurmurHash3 finalizer)
+     * @param item The item
+     * @return The hash
+     */
+    public static long hash(String item){
+        long hash = 0xcbf29ce484222325L;
+        for(byte b : item.getBytes(StandardCharsets.UTF_8)){
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash(hash);
+    }
+
+    /**
+     * A method for hashing a numeric item such as a sequence number into 64 bits (The MurmurHash3 finalizer)
+     * @param item The item
+     * @return The hash
+     */
+    public static long hash(long item){
+        item ^= item >>> 33;
+        item *= 0xff51afd7ed558ccdL;
+        item ^= item >>> 33;
+        item *= 0xc4ceb9fe1a85ec53L;
+        item ^= item >>> 33;
+        return item;
+    }
+
+    /**
+     * A method for offering an item
+     * @param hash The 64-bit hash of the item (Refer hash())
+     */
+    public synchronized void offer(long hash){
+        final int index = (int) (hash >>> (64 - precision));
+        /**
+         * The rank is the position of the first 1-bit after the index bits - The guard bit bounds it when the rest is all zero
+         */
+        final int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if(rank > registers[index]) registers[index] = (byte) rank;
+    }
+
+    /**
+     * A method for estimating the number of distinct items offered
+     * @return The estimate
+     */
+    public synchronized long estimate(){
+        final int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for(byte register : registers){
+            sum += 1.0 / (1L << register);
+            if(register == 0) zeros++;
+        }
+        final double estimate = alpha(m) * m * m / sum;
+        /**
+         * Linear counting is more accurate while many registers are empty
+         */
+        if(estimate <= 2.5 * m && zeros > 0) return Math.round(m * Math.log((double) m / zeros));
+        return Math.round(estimate);
+    }
+
+    /**
+     * A method for merging another sketch into this sketch - The result equals the sketch of the union of the items
+     * @param other The sketch of the same precision
+     * @throws IllegalArgumentException when the precisions differ
+     */
+    public void merge(HyperLogLog other) throws IllegalArgumentException{
+        if(other.precision != this.precision){
+            throw new IllegalArgumentException(String.format("The sketches of the precision %d and %d cannot be merged.", this.precision, other.precision));
+        }
+        final byte[] theirs = other.toByteArray();
+        synchronized (this){
+            for(int i = 0; i < registers.length; i++){
+                if(theirs[i + 1] > registers[i]) registers[i] = theirs[i + 1];
+            }
+        }
+    }
+
+    /**
+     * A method for copying this sketch
+     * @return The copy which does not follow the later offers
+     */
+    public synchronized HyperLogLog copy(){
+        return new HyperLogLog(precision, registers.clone());
+    }
+
+    /**
+     * A method for encoding this sketch - The precision followed by the registers
+     * @return The encoded sketch
+     */
+    public synchronized byte[] toByteArray(){
+        final byte[] bytes = new byte[registers.length + 1];
+        bytes[0] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 1, registers.length);
+        return bytes;
+    }
+
+    /**
+     * A method for decoding a sketch
+     * @param bytes The encoded sketch
+     * @return The sketch
+     * @throws IllegalArgumentException when the bytes are not a sketch
+     */
+    public static HyperLogLog fromByteArray(byte[] bytes) throws IllegalArgumentException{
+        if(bytes.length == 0) throw new IllegalArgumentException("The bytes are not a sketch.");
+        final int precision = bytes[0];
+        if(precision < MIN_PRECISION || precision > MAX_PRECISION || bytes.length != (1 << precision) + 1){
+            throw new IllegalArgumentException("The bytes are not a sketch.");
+        }
+        return new HyperLogLog(precision, Arrays.copyOfRange(bytes, 1, bytes.length));
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    private static double alpha(int m){
+        switch (m){
+            case 16: return 0.673;
+            case 32: return 0.697;
+            case 64: return 0.709;
+            default: return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+}
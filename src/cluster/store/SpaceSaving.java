@@ -0,0 +1,195 @@
+package cluster.store;
+
+import cluster.collection.LongLongMap;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Space-Saving summary of the heavy hitters of a stream of weighted items with a fixed number of counters.
+ * A monitored item is counted exactly from the moment it got its counter, and an unmonitored item replaces the item of the smallest counter,
+ * inheriting its count as the error. So every estimate overestimates the true count by at most its error, the error is at most total / capacity,
+ * and every item counted more than total / capacity is monitored. (Not synchronized)
+ */
+public class SpaceSaving {
+
+    /**
+     * The items of the counters as a binary min-heap by count - The smallest counter is at 0
+     */
+    private final long[] items;
+    private final long[] counts;
+    private final long[] errors;
+    /**
+     * The heap index of each monitored item
+     */
+    private final LongLongMap positions = new LongLongMap();
+    private int size;
+    /**
+     * The sum of the weights of every item offered
+     */
+    private long total;
+
+    /**
+     * Default Constructor
+     * @param capacity The number of counters. e.g) 1000 for keeping the top 20 with a small error
+     * @throws IllegalArgumentException when the capacity is not positive
+     */
+    public SpaceSaving(int capacity) throws IllegalArgumentException{
+        if(capacity < 1) throw new IllegalArgumentException("The capacity must be positive : " + capacity);
+        this.items = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+    }
+
+    /**
+     * A method for counting an item
+     * @param item The non-negative item. e.g) A packed cell key
+     * @param weight The positive weight
+     */
+    public void add(long item, long weight){
+        this.total += weight;
+        if(this.positions.containsKey(item)){
+            final int index = (int) this.positions.get(item);
+            this.counts[index] += weight;
+            siftDown(index);
+            return;
+        }
+        if(this.size < this.items.length){
+            final int index = this.size++;
+            set(index, item, weight, 0);
+            siftUp(index);
+            return;
+        }
+        /**
+         * The item of the smallest counter is evicted - The newcomer may have been counted up to that count before
+         */
+        final long min = this.counts[0];
+        this.positions.remove(this.items[0]);
+        set(0, item, min + weight, min);
+        siftDown(0);
+    }
+
+    /**
+     * A method for visiting the monitored items in descending order of count
+     * @param limit The largest number of items to visit
+     * @param visitor The visitor
+     */
+    public void forEachTop(int limit, Visitor visitor){
+        final int[] order = new int[this.size];
+        for(int i = 0; i < order.length; i++) order[i] = i;
+        /**
+         * A partial heap sort on the counter indices - Only the top n and the first item left out are extracted, in descending order from the end
+         */
+        for(int i = order.length / 2 - 1; i >= 0; i--) siftDownLargest(order, i, order.length);
+        final int n = Math.max(0, Math.min(limit, order.length));
+        for(int end = order.length - 1; end >= order.length - Math.min(n + 1, order.length); end--){
+            final int top = order[0];
+            order[0] = order[end];
+            order[end] = top;
+            siftDownLargest(order, 0, end);
+        }
+        /**
+         * An item is surely in the top n when its lower bound is not below the estimate of the first item left out,
+         * nor below the smallest counter of a full summary which bounds the count of every unmonitored item
+         */
+        final long threshold = Math.max(n < order.length ? this.counts[order[order.length - 1 - n]] : 0, getMaxError());
+        for(int i = 0; i < n; i++){
+            final int index = order[order.length - 1 - i];
+            visitor.visit(this.items[index], this.counts[index], this.errors[index], this.counts[index] - this.errors[index] >= threshold);
+        }
+    }
+
+    /**
+     * A method for estimating the count of an item
+     * @param item The item
+     * @return The overestimated count (0 if the item is not monitored - Its true count is at most getMinCount() then)
+     */
+    public long estimate(long item){
+        return this.positions.containsKey(item) ? this.counts[(int) this.positions.get(item)] : 0;
+    }
+
+    /**
+     * The largest possible error of an estimate
+     */
+    public long getMaxError(){
+        return this.size < this.items.length ? 0 : this.counts[0];
+    }
+
+    public int getCapacity(){
+        return items.length;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    private void set(int index, long item, long count, long error){
+        this.items[index] = item;
+        this.counts[index] = count;
+        this.errors[index] = error;
+        this.positions.put(item, index);
+    }
+
+    private void swap(int a, int b){
+        final long item = this.items[a], count = this.counts[a], error = this.errors[a];
+        set(a, this.items[b], this.counts[b], this.errors[b]);
+        set(b, item, count, error);
+    }
+
+    private void siftUp(int index){
+        while(index > 0){
+            final int parent = (index - 1) >>> 1;
+            if(this.counts[parent] <= this.counts[index]) return;
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index){
+        while(true){
+            final int left = index * 2 + 1;
+            if(left >= this.size) return;
+            final int right = left + 1;
+            final int smaller = right < this.size && this.counts[right] < this.counts[left] ? right : left;
+            if(this.counts[index] <= this.counts[smaller]) return;
+            swap(index, smaller);
+            index = smaller;
+        }
+    }
+
+    /**
+     * A method for sifting down a counter index in a max-heap of counter indices by count
+     * @param order The heap of the counter indices
+     * @param end The size of the heap
+     */
+    private void siftDownLargest(int[] order, int index, int end){
+        while(true){
+            final int left = index * 2 + 1;
+            if(left >= end) return;
+            final int right = left + 1;
+            final int larger = right < end && this.counts[order[right]] > this.counts[order[left]] ? right : left;
+            if(this.counts[order[index]] >= this.counts[order[larger]]) return;
+            final int swapped = order[index];
+            order[index] = order[larger];
+            order[larger] = swapped;
+            index = larger;
+        }
+    }
+
+    /**
+     * A primitive callback interface visiting the monitored items
+     */
+    public interface Visitor {
+        /**
+         * @param item The item
+         * @param count The estimated count (overestimated by at most the error)
+         * @param error The largest overestimation of the count
+         * @param guaranteed true if the item is surely in the requested top
+         */
+        void visit(long item, long count, long error, boolean guaranteed);
+    }
+
+}
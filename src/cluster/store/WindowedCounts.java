@@ -0,0 +1,170 @@
+package cluster.store;
+
+import cluster.collection.LongObjectMap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description The time-bucketed counts of the cells of a cluster. Each cell keeps a ring buffer of per-bucket counts stamped with their bucket,
+ * so that a bucket falling out of the window is expired in O(1) by being overwritten when its slot is reused.
+ * A ring is kept for every cell ever hit, so the memory grows with the number of distinct cells. (Thread-Safe)
+ */
+public class WindowedCounts {
+
+    /**
+     * The number of buckets kept per cell
+     */
+    private final int buckets;
+    /**
+     * The length of a bucket in milliseconds
+     */
+    private final long bucketMillis;
+    /**
+     * The ring of each cell keyed by the packed term ids
+     */
+    private final LongObjectMap<Ring> rings = new LongObjectMap<>();
+    /**
+     * The latest bucket of the events - The sliding windows end at this bucket
+     */
+    private final AtomicLong clock = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Default Constructor
+     * @param buckets The number of buckets kept per cell. e.g) 60
+     * @param bucketMillis The length of a bucket in milliseconds. e.g) 60000
+     * @throws IllegalArgumentException when a parameter is not positive
+     */
+    public WindowedCounts(int buckets, long bucketMillis) throws IllegalArgumentException{
+        if(buckets < 1 || bucketMillis < 1) throw new IllegalArgumentException(String.format("The window of %d buckets of %dms is not valid.", buckets, bucketMillis));
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+    }
+
+    /**
+     * A method for computing the bucket of a timestamp
+     * @param timestamp The event time in milliseconds
+     * @return The bucket
+     */
+    public long bucketOf(long timestamp){
+        return Math.floorDiv(timestamp, this.bucketMillis);
+    }
+
+    /**
+     * A method for counting hits of a cell at an event time - A hit older than the buckets kept by the ring is ignored
+     * @param key The packed key of the cell
+     * @param timestamp The event time in milliseconds
+     * @param hits The number of hits
+     */
+    public void add(long key, long timestamp, long hits){
+        final long bucket = bucketOf(timestamp);
+        long current;
+        while((current = this.clock.get()) < bucket && !this.clock.compareAndSet(current, bucket));
+        this.rings.computeIfAbsent(key, k -> new Ring(this.buckets)).add(bucket, hits);
+    }
+
+    /**
+     * A method for summing the counts of a cell over the last buckets ending at the latest event
+     * @param key The packed key of the cell
+     * @param lastBuckets The number of buckets (1 to the buckets kept)
+     * @return The count
+     */
+    public long count(long key, int lastBuckets){
+        final long to = this.clock.get();
+        return count(key, to - checkedBuckets(lastBuckets) + 1, to);
+    }
+
+    /**
+     * A method for summing the counts of a cell over a range of buckets
+     * @param key The packed key of the cell
+     * @param fromBucket The first bucket (inclusive)
+     * @param toBucket The last bucket (inclusive)
+     * @return The count (The buckets which are not kept anymore count 0)
+     */
+    public long count(long key, long fromBucket, long toBucket){
+        final Ring ring = this.rings.get(key);
+        return ring == null ? 0 : ring.sum(fromBucket, toBucket);
+    }
+
+    /**
+     * A method for visiting the cells having hits in a range of buckets
+     * @param fromBucket The first bucket (inclusive)
+     * @param toBucket The last bucket (inclusive)
+     * @param visitor The visitor receiving the packed key and the count of each cell
+     */
+    public void forEach(long fromBucket, long toBucket, LongObjectMap.Visitor<Long> visitor){
+        this.rings.forEach((key, ring) -> {
+            final long count = ring.sum(fromBucket, toBucket);
+            if(count > 0) visitor.visit(key, count);
+        });
+    }
+
+    /**
+     * A method for checking the number of buckets of a query
+     * @throws IllegalArgumentException when the number is not in 1 to the buckets kept
+     */
+    public int checkedBuckets(int lastBuckets) throws IllegalArgumentException{
+        if(lastBuckets < 1 || lastBuckets > this.buckets){
+            throw new IllegalArgumentException(String.format("The window must span 1 to %d buckets : %d", this.buckets, lastBuckets));
+        }
+        return lastBuckets;
+    }
+
+    /**
+     * A method for retrieving the latest bucket of the events
+     * @return The bucket (Long.MIN_VALUE if no event is counted yet)
+     */
+    public long getClock(){
+        return this.clock.get();
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * A ring buffer of per-bucket counts - The slot of a bucket is reset when a newer bucket reuses it
+     */
+    private static final class Ring {
+
+        private final long[] counts;
+        /**
+         * The bucket counted by each slot
+         */
+        private final long[] stamps;
+
+        Ring(int buckets){
+            this.counts = new long[buckets];
+            this.stamps = new long[buckets];
+            Arrays.fill(this.stamps, Long.MIN_VALUE);
+        }
+
+        synchronized void add(long bucket, long hits){
+            final int slot = (int) Math.floorMod(bucket, (long) counts.length);
+            if(stamps[slot] != bucket){
+                /**
+                 * The slot holds a newer bucket - The hit is too late to be kept
+                 */
+                if(stamps[slot] > bucket) return;
+                stamps[slot] = bucket;
+                counts[slot] = 0;
+            }
+            counts[slot] += hits;
+        }
+
+        synchronized long sum(long fromBucket, long toBucket){
+            long sum = 0;
+            for(int i = 0; i < counts.length; i++){
+                if(stamps[i] >= fromBucket && stamps[i] <= toBucket) sum += counts[i];
+            }
+            return sum;
+        }
+    }
+
+}
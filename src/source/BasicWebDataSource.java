@@ -6,6 +6,8 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
 
 /**
  * @author EuiJin.Ham
@@ -63,6 +65,22 @@ public class BasicWebDataSource extends DataSource {
         return this;
     }
 
+    /**
+     * A method for retrieving the id of the origin of the data
+     * @return The id set explicitly, or the host of the url - The pages of a web site count as one source
+     */
+    @Override
+    public String getSourceId() {
+        final String sourceId = super.getSourceId();
+        if(sourceId != null || url == null) return sourceId;
+        try{
+            final String host = new URI(url).getHost();
+            return host == null ? url : host;
+        }catch (URISyntaxException e){
+            return url;
+        }
+    }
+
     public String getUrl() {
         return url;
     }
@@ -19,6 +19,11 @@ public abstract class DataSource implements IDataSource{
 
     private String currentDelimiter = DELIMITER_DEFAULT;
 
+    /**
+     * The id of the origin of the data for counting distinct sources (null if every document counts as a distinct source)
+     */
+    private String sourceId;
+
     public void appendToSource(String newData) throws NullPointerException{
         appendToSource(newData, DELIMITER_DEFAULT);
     }
@@ -32,6 +37,20 @@ public abstract class DataSource implements IDataSource{
         return currentDelimiter;
     }
 
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * A method for setting the id of the origin of the data - The documents of the same id count as one source of a cell
+     * @param sourceId The id. e.g) The domain of a web site
+     * @return This data source
+     */
+    public DataSource setSourceId(String sourceId) {
+        this.sourceId = sourceId;
+        return this;
+    }
+
     @Override
     public DataSource flush() throws NullPointerException {
         this.source.setLength(0);
@@ -0,0 +1,119 @@
+package source;
+
+import source.flow.Flow;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Publisher emitting the data taken from data sources, one document per data source.
+ * A data source is taken only when the subscriber requested it, so a slow subscriber throttles the publisher instead of letting the documents pile up.
+ */
+public class DataSourcePublisher implements Flow.Publisher<String> {
+
+    /**
+     * DataSource instances
+     */
+    private final List<DataSource> dataSources;
+
+    /**
+     * Default Constructor
+     * @param dataSources datasource instances
+     */
+    public DataSourcePublisher(List<DataSource> dataSources){
+        this.dataSources = dataSources;
+    }
+
+    /**
+     * Constructor with multi-dataSource
+     * @param dataSources datasource instances
+     */
+    public DataSourcePublisher(DataSource... dataSources){
+        this(Arrays.asList(dataSources));
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super String> subscriber) {
+        Objects.requireNonNull(subscriber);
+        subscriber.onSubscribe(new DataSourceSubscription(subscriber, new ArrayList<>(this.dataSources).iterator()));
+    }
+
+    /**
+     * A subscription emitting the data sources in order on the thread requesting them
+     */
+    private static final class DataSourceSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super String> subscriber;
+        private final Iterator<DataSource> iterator;
+        /**
+         * The number of requested documents not emitted yet
+         */
+        private final AtomicLong demand = new AtomicLong();
+        /**
+         * The number of pending emission loops - Only the request entering first emits, so that request() called from onNext does not recurse
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        DataSourceSubscription(Flow.Subscriber<? super String> subscriber, Iterator<DataSource> iterator){
+            this.subscriber = subscriber;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long n) {
+            if(n <= 0){
+                cancel();
+                subscriber.onError(new IllegalArgumentException("The requested demand must be positive : " + n));
+                return;
+            }
+            long current, next;
+            do{
+                current = demand.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            }while(!demand.compareAndSet(current, next));
+            emit();
+        }
+
+        private void emit(){
+            if(wip.getAndIncrement() != 0) return;
+            int missed = 1;
+            while(true){
+                final long requested = demand.get();
+                long emitted = 0;
+                while(emitted != requested){
+                    if(cancelled) return;
+                    if(!iterator.hasNext()) break;
+                    final String datum;
+                    try{
+                        datum = iterator.next().take();
+                    }catch (RuntimeException e){
+                        cancelled = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    subscriber.onNext(datum);
+                    emitted++;
+                }
+                if(cancelled) return;
+                if(!iterator.hasNext()){
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if(emitted != 0) demand.addAndGet(-emitted);
+                missed = wip.addAndGet(-missed);
+                if(missed == 0) break;
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+}
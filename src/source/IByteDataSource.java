@@ -0,0 +1,18 @@
+package source;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description An Interface for designing A DataSource Model which provides the collected data as UTF-8 bytes without decoding
+ */
+public interface IByteDataSource {
+
+    /**
+     * Returns the Collected data as UTF-8 bytes
+     * @return A buffer of the Collected Data (The position and limit of the buffer may be changed by the caller)
+     */
+    ByteBuffer takeBytes() throws NullPointerException;
+
+}
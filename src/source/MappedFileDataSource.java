@@ -0,0 +1,76 @@
+package source;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Class for collecting data from a UTF-8 text file mapped into memory (The file must be smaller than 2GB)
+ */
+public class MappedFileDataSource extends DataSource implements IByteDataSource {
+
+    private String path;
+    /**
+     * The mapped content of the file
+     */
+    private ByteBuffer mapped;
+
+    public MappedFileDataSource(String path){
+        this.path = path;
+    }
+
+    /**
+     * An Overrode method for mapping the file into memory
+     * @return This instance
+     * @throws IOException
+     */
+    @Override
+    public DataSource collect() throws IOException {
+        try(FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)){
+            this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return this;
+    }
+
+    /**
+     * A method for retrieving the decoded data - Prefer takeBytes() for scanning without decoding
+     * @return taken data from collected data
+     * @throws NullPointerException
+     */
+    @Override
+    public String take() throws NullPointerException {
+        if(mapped == null) throw new NullPointerException();
+
+        return StandardCharsets.UTF_8.decode(mapped.duplicate()).toString().trim();
+    }
+
+    @Override
+    public ByteBuffer takeBytes() throws NullPointerException {
+        if(mapped == null) throw new NullPointerException();
+
+        return mapped.duplicate();
+    }
+
+    /**
+     * A Method for releasing the mapped buffer
+     * @throws NullPointerException
+     */
+    @Override
+    public DataSource flush() throws NullPointerException {
+        this.mapped = null;
+        return super.flush();
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+}
@@ -0,0 +1,83 @@
+package source.flow;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description The reactive-streams interfaces with demand-based backpressure, declared with the same shape as java.util.concurrent.Flow of Java 9
+ * so that this project keeps building on Java 8. Migrating to Java 9 only needs the imports to be replaced.
+ */
+public final class Flow {
+
+    private Flow(){
+    }
+
+    /**
+     * A producer of items received by subscribers - Items are only emitted as far as the subscribers requested
+     * @param <T> The type of items
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        /**
+         * Adds a subscriber - The subscriber receives onSubscribe first
+         * @param subscriber The subscriber
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items - The methods are called in sequence, never concurrently
+     * @param <T> The type of items
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Called before any other method with the subscription for requesting items
+         * @param subscription The subscription
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item as far as the requested demand allows
+         * @param item The item
+         */
+        void onNext(T item);
+
+        /**
+         * Called on an unrecoverable error - No method is called after this
+         * @param throwable The error
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called when no more item will be emitted - No method is called after this
+         */
+        void onComplete();
+    }
+
+    /**
+     * A link between a publisher and a subscriber
+     */
+    public interface Subscription {
+
+        /**
+         * Adds demand - The publisher emits up to n more items
+         * @param n The number of items (must be positive)
+         */
+        void request(long n);
+
+        /**
+         * Stops the emission of items eventually
+         */
+        void cancel();
+    }
+
+    /**
+     * A subscriber which is also a publisher
+     * @param <T> The type of received items
+     * @param <R> The type of emitted items
+     */
+    public interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+    }
+
+}
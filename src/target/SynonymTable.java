@@ -0,0 +1,125 @@
+package target;
+
+import cluster.normalization.exceptions.InfiniteRecurrenceException;
+import cluster.normalization.matcher.CaseFolding;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A flat table mapping each synonym to its final(canonical) term, compiled from the transitive closure of the synonym chains
+ */
+public class SynonymTable {
+
+    /**
+     * Synonym to canonical term map for case-sensitive resolution
+     */
+    private final Map<String, String> sensitive;
+    /**
+     * Folded synonym to canonical term map for case-ignoring resolution
+     */
+    private final Map<String, String> folded;
+    private final boolean caseSensitive;
+
+    /**
+     * Default Constructor - Compiles the closure in both case modes
+     * @param synonym The synonym map (Synonym => Original)
+     * @param caseSensitive The case mode used for resolution - A cycle in this mode is rejected
+     * @param debug Debug Mode Flag
+     * @throws InfiniteRecurrenceException when the synonym chains form a cycle in the resolution mode
+     */
+    public SynonymTable(Map<String, String> synonym, boolean caseSensitive, boolean debug) throws InfiniteRecurrenceException{
+        this.caseSensitive = caseSensitive;
+
+        final Map<String, String> foldedSynonym = new HashMap<>();
+        for(Map.Entry<String, String> e : synonym.entrySet()){
+            final String key = CaseFolding.fold(e.getKey());
+            if(foldedSynonym.containsKey(key)){
+                if(debug) System.err.println(Thread.currentThread().getName() + " - " + "[SynonymTable] Synonym [" + e.getKey() + "] is duplicate ignoring case. Ignoring this synonym in case-ignoring mode.");
+                continue;
+            }
+            foldedSynonym.put(key, e.getValue());
+        }
+
+        this.sensitive = closure(synonym, false, caseSensitive, debug);
+        this.folded = closure(foldedSynonym, true, !caseSensitive, debug);
+    }
+
+    /**
+     * A method for computing the transitive closure of synonym chains in linear time
+     * @param synonym The synonym map
+     * @param fold true if the keys of the synonym map are folded
+     * @param strict true if a cycle must be rejected - Otherwise the members of the cycle stay unresolved
+     * @param debug Debug Mode Flag
+     * @return Synonym to canonical term map
+     * @throws InfiniteRecurrenceException when a cycle is found in strict mode
+     */
+    private static Map<String, String> closure(Map<String, String> synonym, boolean fold, boolean strict, boolean debug) throws InfiniteRecurrenceException{
+        final Map<String, String> table = new HashMap<>(synonym.size() * 2);
+        final Set<String> cyclic = new HashSet<>();
+        final List<String> path = new ArrayList<>();
+        final Set<String> onPath = new HashSet<>();
+
+        for(String start : synonym.keySet()){
+            if(table.containsKey(start) || cyclic.contains(start)) continue;
+            path.clear();
+            onPath.clear();
+
+            String key = start;
+            String canonical = null;
+            while(true){
+                path.add(key);
+                onPath.add(key);
+                final String next = synonym.get(key);
+                final String nextKey = fold ? CaseFolding.fold(next) : next;
+                if(table.containsKey(nextKey)){
+                    canonical = table.get(nextKey);
+                    break;
+                }
+                if(cyclic.contains(nextKey)) break;
+                if(!synonym.containsKey(nextKey) || nextKey.equals(key)){
+                    canonical = next;
+                    break;
+                }
+                if(onPath.contains(nextKey)){
+                    if(strict) throw new InfiniteRecurrenceException("The synonyms form a cycle : " + path);
+                    if(debug) System.err.println(Thread.currentThread().getName() + " - " + "[SynonymTable] The synonyms form a cycle " + path + ". Leaving them unresolved.");
+                    break;
+                }
+                key = nextKey;
+            }
+
+            if(canonical == null) cyclic.addAll(path);
+            else for(String member : path) table.put(member, canonical);
+        }
+
+        return table;
+    }
+
+    /**
+     * A method for resolving a term into its canonical term with a single lookup
+     * @param term The term to resolve
+     * @return The canonical term (The term itself if it is not a synonym)
+     */
+    public String resolve(String term){
+        final String canonical = this.caseSensitive ? this.sensitive.get(term) : this.folded.get(CaseFolding.fold(term));
+        return canonical == null ? term : canonical;
+    }
+
+    /**
+     * A method for resolving a term with the case mode in parameter
+     * @param term The term to resolve
+     * @param caseSensitive The case mode
+     * @return The canonical term (The term itself if it is not a synonym or cannot be resolved in that mode)
+     */
+    public String resolve(String term, boolean caseSensitive){
+        final String canonical = caseSensitive ? this.sensitive.get(term) : this.folded.get(CaseFolding.fold(term));
+        return canonical == null ? term : canonical;
+    }
+
+    public int size(){
+        return this.caseSensitive ? this.sensitive.size() : this.folded.size();
+    }
+
+}
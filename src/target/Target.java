@@ -1,10 +1,16 @@
 package target;
 
-import org.ahocorasick.trie.Trie;
+import cluster.constants.FlagState;
+import cluster.normalization.exceptions.InfiniteRecurrenceException;
+import cluster.normalization.matcher.IByteMatcher;
+import cluster.normalization.matcher.IMatcher;
+import cluster.normalization.matcher.MatcherEngine;
+import cluster.normalization.matcher.Utf8Matcher;
 
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author EuiJin.Ham
@@ -15,12 +21,38 @@ public class Target implements Serializable{
 
     private final TargetConfig targetConfig;
     public static String DETAIL_NOT_CATEGORIZED = "[NOT_CLASSIFIED]";
+    private static final int[] NO_CATEGORIES = new int[0];
 
     private ConcurrentHashMap<String, Set<String>> category;
     private ConcurrentHashMap<String, String> synonym;
     private Set<String> keywords;
     private boolean caseSensitive;
 
+    /**
+     * The closure table of synonyms compiled on building
+     */
+    private transient volatile SynonymTable synonymTable;
+    /**
+     * The dictionary of term ids compiled on building
+     */
+    private transient volatile TermDictionary dictionary;
+    /**
+     * Role table - The bitmask of FlagState roles(category, keyword, detail) of each term indexed by term id
+     */
+    private transient volatile int[] roles;
+    /**
+     * Reverse index of details - The ascending category ids enclosing each detail indexed by term id
+     */
+    private transient volatile int[][] detailCategories;
+    /**
+     * The matchers compiled from keywords, categories, details and synonyms per engine (Lazily compiled, shared by every filter)
+     */
+    private transient final AtomicReferenceArray<IMatcher> matchers = new AtomicReferenceArray<>(MatcherEngine.values().length);
+    /**
+     * The matcher scanning UTF-8 bytes (Lazily compiled)
+     */
+    private transient volatile IByteMatcher byteMatcher;
+
     /**
      * A Main Constructor for initiating a new Target class instance - Explicit call is deprecated(Use TargetIBuilder)
      * @param category A category map
@@ -36,6 +68,7 @@ public class Target implements Serializable{
         this.keywords = keywords;
         this.caseSensitive = caseSensitive;
         this.targetConfig = new TargetConfig(category, synonym, keywords, caseSensitive, false);
+        compile();
     }
 
     private Target(TargetConfig targetConfig){
@@ -46,6 +79,7 @@ public class Target implements Serializable{
         this.keywords = targetConfig.getKeywords();
         this.caseSensitive = targetConfig.isCaseSensitive();
         this.targetConfig = targetConfig;
+        compile();
     }
 
     public static TargetBuilder builder(){
@@ -76,10 +110,236 @@ public class Target implements Serializable{
         return synonym;
     }
 
+    /**
+     * A method for resolving a term into its final synonym with a single lookup on the closure table
+     * @param term The term to resolve
+     * @return The canonical term (The term itself if it is not a synonym)
+     */
+    public String resolveSynonym(String term){
+        return this.synonymTable.resolve(term);
+    }
+
+    public SynonymTable getSynonymTable() {
+        return synonymTable;
+    }
+
     public TargetConfig getTargetConfig() {
         return targetConfig;
     }
 
+    /**
+     * A method for retrieving the matcher compiled from this target. The matcher is compiled once per engine on the first call and reused until invalidate() is called. (Thread-Safe)
+     * @param engine The matcher engine
+     * @return compiled matcher
+     */
+    public IMatcher getMatcher(MatcherEngine engine){
+        IMatcher compiled = this.matchers.get(engine.ordinal());
+        if(compiled == null){
+            synchronized (this){
+                compiled = this.matchers.get(engine.ordinal());
+                if(compiled == null){
+                    compiled = compileMatcher(engine);
+                    this.matchers.set(engine.ordinal(), compiled);
+                    if(targetConfig.isDebug()){
+                        System.err.println(Thread.currentThread().getName() + " - " + "[Target] Matcher compiled. [" + engine + "]");
+                    }
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * A method for retrieving the matcher scanning UTF-8 bytes. The matcher is compiled once on the first call and reused until invalidate() is called. (Thread-Safe)
+     * @return compiled byte matcher
+     */
+    public IByteMatcher getByteMatcher(){
+        IByteMatcher compiled = this.byteMatcher;
+        if(compiled == null){
+            synchronized (this){
+                compiled = this.byteMatcher;
+                if(compiled == null){
+                    final int[] patternTerms = new int[this.dictionary.size()];
+                    final String[] patterns = collectPatterns(patternTerms);
+                    compiled = new Utf8Matcher(patterns, Arrays.copyOf(patternTerms, patterns.length), this.caseSensitive);
+                    this.byteMatcher = compiled;
+                    if(targetConfig.isDebug()){
+                        System.err.println(Thread.currentThread().getName() + " - " + "[Target] Byte Matcher compiled.");
+                    }
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * A method for retrieving the term of an id
+     * @param termId The term id
+     * @return The term
+     */
+    public String getTerm(int termId){
+        return this.dictionary.term(termId);
+    }
+
+    /**
+     * A method for retrieving the id of a term
+     * @param term The term
+     * @return The term id (TermDictionary.NONE if the term is not in this target)
+     */
+    public int getTermId(String term){
+        return this.dictionary.id(term);
+    }
+
+    /**
+     * A method for retrieving the id of the none-categorized detail
+     * @return The term id of DETAIL_NOT_CATEGORIZED
+     */
+    public int getNotCategorizedId(){
+        return this.dictionary.id(DETAIL_NOT_CATEGORIZED);
+    }
+
+    public TermDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * A method to check if the term id is a keyword
+     * @param termId The term id
+     * @return A Result of the checking process
+     */
+    public boolean isKeyword(int termId){
+        return (this.roles[termId] & FlagState.KEYWORD.mask()) != 0;
+    }
+
+    /**
+     * A method to check if the term id is a category
+     * @param termId The term id
+     * @return A Result of the checking process
+     */
+    public boolean isCategory(int termId){
+        return (this.roles[termId] & FlagState.CATEGORY.mask()) != 0;
+    }
+
+    /**
+     * A method to check if the term id is a detail of the category id
+     * @param categoryId The category id
+     * @param termId The term id
+     * @return A Result of the checking process
+     */
+    public boolean isDetailOf(int categoryId, int termId){
+        return Arrays.binarySearch(this.detailCategories[termId], categoryId) >= 0;
+    }
+
+    /**
+     * A method for retrieving the categories enclosing the detail id in parameter with the reverse index
+     * @param termId The detail id
+     * @return ascending category ids (This value might be empty and must not be modified)
+     */
+    public int[] getCategoriesOfDetail(int termId){
+        return this.detailCategories[termId];
+    }
+
+    /**
+     * A method for retrieving the categories enclosing the detail in parameter with the reverse index.
+     * The detail is space-flushed and its case is folded when case is ignored.
+     * @param detail The detail name
+     * @return ascending category ids (This value might be empty and must not be modified)
+     */
+    public int[] getCategoriesOfDetail(String detail){
+        final int termId = this.dictionary.id(TargetBuilder.flushSpaces(detail));
+        return termId == TermDictionary.NONE ? NO_CATEGORIES : this.detailCategories[termId];
+    }
+
+    /**
+     * A method for retrieving the roles of the term id in parameter with a single lookup on the role table
+     * @param termId The term id
+     * @return The bitmask of FlagState.mask() - A detail role means that the term is a detail of at least one category (Refer getCategoriesOfDetail)
+     */
+    public int getRoles(int termId){
+        return this.roles[termId];
+    }
+
+    /**
+     * A method for discarding the compiled structures - This method must be called after modifying the category, synonym or keyword collections of this target
+     */
+    public synchronized void invalidate(){
+        compile();
+        for(int i = 0; i < this.matchers.length(); i++) this.matchers.set(i, null);
+        this.byteMatcher = null;
+    }
+
+    /**
+     * A private method for compiling the closure table of the synonyms and the dictionary of term ids
+     * @throws IllegalStateException when the synonyms form a cycle
+     */
+    private void compile(){
+        try {
+            this.synonymTable = new SynonymTable(this.synonym, this.caseSensitive, this.targetConfig.isDebug());
+        }catch (InfiniteRecurrenceException e){
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        /**
+         * The ids of the former dictionary are kept, so that the ids held by clusters stay valid after invalidate()
+         */
+        final TermDictionary dictionary = new TermDictionary(this.category, this.keywords, this.synonym, this.synonymTable, this.caseSensitive, this.dictionary);
+        final int[] roles = new int[dictionary.size()];
+        final BitSet[] detailIds = new BitSet[dictionary.size()];
+
+        for(String keyword : this.keywords) roles[dictionary.id(keyword)] |= FlagState.KEYWORD.mask();
+        for(Map.Entry<String, Set<String>> e : this.category.entrySet()){
+            final int categoryId = dictionary.id(e.getKey());
+            roles[categoryId] |= FlagState.CATEGORY.mask();
+            for(String detail : e.getValue()){
+                final int detailId = dictionary.id(detail);
+                roles[detailId] |= FlagState.DETAIL.mask();
+                if(detailIds[detailId] == null) detailIds[detailId] = new BitSet();
+                detailIds[detailId].set(categoryId);
+            }
+        }
+
+        final int[][] detailCategories = new int[dictionary.size()][];
+        for(int i = 0; i < detailCategories.length; i++){
+            detailCategories[i] = detailIds[i] == null ? NO_CATEGORIES : detailIds[i].stream().toArray();
+        }
+
+        this.roles = roles;
+        this.detailCategories = detailCategories;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * A private method for compiling every term of the dictionary into a new matcher.
+     * Every term emits the id of its canonical term, so the matchers emit synonyms already resolved.
+     * @param engine The matcher engine
+     * @return A new matcher instance
+     */
+    private IMatcher compileMatcher(MatcherEngine engine){
+        final int[] patternTerms = new int[this.dictionary.size()];
+        final String[] patterns = collectPatterns(patternTerms);
+        return engine.compile(patterns, Arrays.copyOf(patternTerms, patterns.length), this.caseSensitive);
+    }
+
+    /**
+     * A private method for collecting every term of the dictionary as the patterns of the matchers
+     * @param patternTerms The array receiving the canonical term id of each pattern
+     * @return patterns
+     */
+    private String[] collectPatterns(int[] patternTerms){
+        final TermDictionary dictionary = this.dictionary;
+        final int notCategorized = dictionary.id(DETAIL_NOT_CATEGORIZED);
+        final List<String> patterns = new ArrayList<>();
+        for(int i = 0; i < dictionary.size(); i++){
+            /**
+             * The placeholder of none-categorized details never appears in the text and retired terms are not matched
+             */
+            if(i == notCategorized || !dictionary.isLive(i)) continue;
+            patternTerms[patterns.size()] = dictionary.canonical(i);
+            patterns.add(dictionary.term(i));
+        }
+        return patterns.toArray(new String[patterns.size()]);
+    }
+
     @Override
     public String toString() {
         return "Target{" +
@@ -202,6 +462,10 @@ public class Target implements Serializable{
          * @return builder instance
          */
         public TargetBuilder addSynonym(String original, String domain){
+            if(flushSpaces(original).equals(flushSpaces(domain))){
+                if(this.targetConfig.isDebug()) System.err.println(Thread.currentThread().getName() + " - " + "[TargetBuilder] Tried to put synonym which is same with the domain category [" + domain + "]. Ignoring this operation since the operation can occur recursive error.");
+                return this;
+            }
             if(this.targetConfig.getSynonym().containsKey(flushSpaces(original)) && this.targetConfig.getSynonym().get(flushSpaces(original)).equals(flushSpaces(domain))){
                 if(this.targetConfig.isDebug()) System.err.println(Thread.currentThread().getName() + " - " + "[TargetBuilder] Tried to put synonym which is existing in domain category set[" + domain + "]. Ignoring this operation since the operation can occur recursive error.");
                 return this;
@@ -300,6 +564,7 @@ public class Target implements Serializable{
         /**
          * A method for building a new Target class instance - This method must be called on the end of settings
          * @return A new target class instance
+         * @throws IllegalStateException when the synonyms form a cycle (Caused by InfiniteRecurrenceException)
          */
         public Target build(){
             Target target = new Target(this.targetConfig);
@@ -0,0 +1,205 @@
+package target;
+
+import cluster.normalization.matcher.CaseFolding;
+import cluster.normalization.matcher.IByteMatcher;
+import cluster.normalization.matcher.IMatcher;
+import cluster.normalization.matcher.MatchHandler;
+import cluster.normalization.matcher.MatcherEngine;
+import cluster.normalization.matcher.Utf8Matcher;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Group of targets compiled into a single matcher, so that a document is scanned once for every target in the group.
+ * The group is a snapshot of the targets - It must be rebuilt after a target of the group is invalidated.
+ */
+public class TargetGroup {
+
+    private final List<Target> targets;
+    private final boolean caseSensitive;
+    /**
+     * The union of the patterns of every target - The index of each pattern is used as its id in the group matcher
+     */
+    private final String[] patterns;
+    /**
+     * Output masks - The indices of the targets owning each pattern, and the canonical term id of the pattern in each owner
+     */
+    private final int[][] owners;
+    private final int[][] ownerTerms;
+    /**
+     * The matchers compiled from the union of the patterns per engine (Lazily compiled)
+     */
+    private final AtomicReferenceArray<IMatcher> matchers = new AtomicReferenceArray<>(MatcherEngine.values().length);
+    /**
+     * The matcher scanning UTF-8 bytes compiled from the union of the patterns (Lazily compiled)
+     */
+    private volatile IByteMatcher byteMatcher;
+
+    /**
+     * Default Constructor
+     * @param targets The targets to group
+     * @throws IllegalArgumentException when the targets do not share the case mode
+     */
+    public TargetGroup(Target... targets){
+        this(Arrays.asList(targets));
+    }
+
+    /**
+     * Default Constructor
+     * @param targets The targets to group
+     * @throws IllegalArgumentException when the targets do not share the case mode
+     */
+    public TargetGroup(List<Target> targets){
+        if(targets.isEmpty()) throw new IllegalArgumentException("A target group needs at least one target.");
+        this.targets = Collections.unmodifiableList(new ArrayList<>(targets));
+        this.caseSensitive = targets.get(0).isCaseSensitive();
+
+        final Map<String, Integer> ids = new LinkedHashMap<>();
+        for(Target target : targets){
+            if(target.isCaseSensitive() != this.caseSensitive){
+                throw new IllegalArgumentException("The targets of a group must share the case mode.");
+            }
+            final TermDictionary dictionary = target.getDictionary();
+            final int notCategorized = target.getNotCategorizedId();
+            for(int i = 0; i < dictionary.size(); i++){
+                if(i == notCategorized || !dictionary.isLive(i)) continue;
+                final String pattern = dictionary.term(i);
+                final String key = this.caseSensitive ? pattern : CaseFolding.fold(pattern);
+                if(!ids.containsKey(key)) ids.put(key, ids.size());
+            }
+        }
+
+        this.patterns = new String[ids.size()];
+        this.owners = new int[ids.size()][];
+        this.ownerTerms = new int[ids.size()][];
+        final int[] owner = new int[targets.size()];
+        final int[] ownerTerm = new int[targets.size()];
+
+        for(Map.Entry<String, Integer> e : ids.entrySet()){
+            final int patternId = e.getValue();
+            int count = 0;
+            for(int t = 0; t < targets.size(); t++){
+                final Target target = targets.get(t);
+                final int termId = target.getTermId(e.getKey());
+                if(termId == TermDictionary.NONE || termId == target.getNotCategorizedId() || !target.getDictionary().isLive(termId)) continue;
+                if(this.patterns[patternId] == null) this.patterns[patternId] = target.getTerm(termId);
+                owner[count] = t;
+                ownerTerm[count++] = target.getDictionary().canonical(termId);
+            }
+            this.owners[patternId] = Arrays.copyOf(owner, count);
+            this.ownerTerms[patternId] = Arrays.copyOf(ownerTerm, count);
+        }
+    }
+
+    /**
+     * A method for retrieving the matcher compiled from the union of the targets (Thread-Safe)
+     * @param engine The matcher engine
+     * @return compiled matcher emitting the pattern ids of this group
+     */
+    public IMatcher getMatcher(MatcherEngine engine){
+        IMatcher compiled = this.matchers.get(engine.ordinal());
+        if(compiled == null){
+            synchronized (this){
+                compiled = this.matchers.get(engine.ordinal());
+                if(compiled == null){
+                    final int[] ids = new int[this.patterns.length];
+                    for(int i = 0; i < ids.length; i++) ids[i] = i;
+                    compiled = engine.compile(this.patterns, ids, this.caseSensitive);
+                    this.matchers.set(engine.ordinal(), compiled);
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * A method for retrieving the matcher scanning UTF-8 bytes compiled from the union of the targets (Thread-Safe)
+     * @return compiled byte matcher emitting the pattern ids of this group
+     */
+    public IByteMatcher getByteMatcher(){
+        IByteMatcher compiled = this.byteMatcher;
+        if(compiled == null){
+            synchronized (this){
+                compiled = this.byteMatcher;
+                if(compiled == null){
+                    final int[] ids = new int[this.patterns.length];
+                    for(int i = 0; i < ids.length; i++) ids[i] = i;
+                    compiled = new Utf8Matcher(this.patterns, ids, this.caseSensitive);
+                    this.byteMatcher = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * A method for retrieving the normalized term ids of every target with a single scan
+     * @param text The text to scan
+     * @param engine The matcher engine
+     * @return distinct normalized term ids in ascending order indexed by target index
+     */
+    public int[][] normalizeIds(CharSequence text, MatcherEngine engine){
+        final BitSet[] found = newFound();
+        getMatcher(engine).match(text, handlerOf(found));
+        return normalized(found);
+    }
+
+    /**
+     * A method for retrieving the normalized term ids of every target with a single scan of UTF-8 bytes without decoding
+     * @param utf8 The UTF-8 encoded text (The remaining bytes are scanned)
+     * @return distinct normalized term ids in ascending order indexed by target index
+     */
+    public int[][] normalizeIds(ByteBuffer utf8){
+        final BitSet[] found = newFound();
+        getByteMatcher().match(utf8, handlerOf(found));
+        return normalized(found);
+    }
+
+    private BitSet[] newFound(){
+        final BitSet[] found = new BitSet[this.targets.size()];
+        for(int t = 0; t < found.length; t++) found[t] = new BitSet();
+        return found;
+    }
+
+    /**
+     * A method for creating the handler marking the canonical term ids of the owners of each matched pattern
+     */
+    private MatchHandler handlerOf(BitSet[] found){
+        return (patternId, offset) -> {
+            final int[] owner = this.owners[patternId];
+            final int[] ownerTerm = this.ownerTerms[patternId];
+            for(int k = 0; k < owner.length; k++) found[owner[k]].set(ownerTerm[k]);
+        };
+    }
+
+    private static int[][] normalized(BitSet[] found){
+        final int[][] normalized = new int[found.length][];
+        for(int t = 0; t < found.length; t++) normalized[t] = found[t].stream().toArray();
+        return normalized;
+    }
+
+    /**
+     * A method for retrieving the index of a target in this group
+     * @param target The target
+     * @return The index (-1 if the target is not in this group)
+     */
+    public int indexOf(Target target){
+        for(int t = 0; t < this.targets.size(); t++){
+            if(this.targets.get(t) == target) return t;
+        }
+        return -1;
+    }
+
+    public List<Target> getTargets() {
+        return targets;
+    }
+
+    public boolean isCaseSensitive() {
+        return caseSensitive;
+    }
+
+}
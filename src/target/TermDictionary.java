@@ -0,0 +1,149 @@
+package target;
+
+import cluster.normalization.matcher.CaseFolding;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Dictionary assigning a dense int id to every category, detail, keyword and synonym of a target
+ * The ids of a recompiled dictionary are kept stable - The terms removed from the target keep their ids as retired terms.
+ */
+public class TermDictionary {
+
+    public static final int NONE = -1;
+
+    /**
+     * Id to term array
+     */
+    private final String[] terms;
+    /**
+     * Id to canonical term id array (Synonyms are resolved into the id of their final term)
+     */
+    private final int[] canonical;
+    /**
+     * Term to id map (Keys are folded when case is ignored)
+     */
+    private final Map<String, Integer> ids;
+    /**
+     * The ids of the terms present in the target (Retired terms of the previous dictionary are not live)
+     */
+    private final BitSet live;
+    private final boolean caseSensitive;
+
+    /**
+     * Default Constructor
+     * @param category The category map
+     * @param keywords The keyword set
+     * @param synonym The synonym map (Synonym => Original)
+     * @param synonymTable The closure table of the synonyms
+     * @param caseSensitive false if terms differing only in case share an id
+     */
+    public TermDictionary(Map<String, Set<String>> category, Set<String> keywords, Map<String, String> synonym, SynonymTable synonymTable, boolean caseSensitive){
+        this(category, keywords, synonym, synonymTable, caseSensitive, null);
+    }
+
+    /**
+     * Constructor keeping the ids of a previous dictionary
+     * @param category The category map
+     * @param keywords The keyword set
+     * @param synonym The synonym map (Synonym => Original)
+     * @param synonymTable The closure table of the synonyms
+     * @param caseSensitive false if terms differing only in case share an id
+     * @param previous The dictionary whose terms keep their ids (null if there is none)
+     */
+    public TermDictionary(Map<String, Set<String>> category, Set<String> keywords, Map<String, String> synonym, SynonymTable synonymTable, boolean caseSensitive, TermDictionary previous){
+        this.caseSensitive = caseSensitive;
+        this.ids = new HashMap<>();
+        this.live = new BitSet();
+        final List<String> list = new ArrayList<>();
+
+        if(previous != null){
+            for(int i = 0; i < previous.size(); i++) intern(previous.term(i), list);
+            this.live.clear();
+        }
+
+        intern(Target.DETAIL_NOT_CATEGORIZED, list);
+        /**
+         * Categories, details and keywords precede synonyms in this order so that their spelling is kept when case is ignored
+         */
+        for(String key : category.keySet()) intern(key, list);
+        for(Set<String> details : category.values()){
+            for(String detail : details) intern(detail, list);
+        }
+        for(String keyword : keywords) intern(keyword, list);
+        for(Map.Entry<String, String> e : synonym.entrySet()){
+            intern(e.getKey(), list);
+            intern(e.getValue(), list);
+        }
+
+        this.terms = list.toArray(new String[list.size()]);
+        this.canonical = new int[this.terms.length];
+        for(int i = 0; i < this.terms.length; i++){
+            final int resolved = id(synonymTable.resolve(this.terms[i]));
+            this.canonical[i] = resolved == NONE ? i : resolved;
+        }
+    }
+
+    private void intern(String term, List<String> list){
+        final String key = key(term);
+        Integer id = this.ids.get(key);
+        if(id == null){
+            id = list.size();
+            this.ids.put(key, id);
+            list.add(term);
+        }
+        this.live.set(id);
+    }
+
+    private String key(String term){
+        return this.caseSensitive ? term : CaseFolding.fold(term);
+    }
+
+    /**
+     * A method for retrieving the id of a term
+     * @param term The term
+     * @return The id (NONE if the term is not in the dictionary)
+     */
+    public int id(String term){
+        final Integer id = this.ids.get(key(term));
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * A method for retrieving the term of an id
+     * @param id The id
+     * @return The term
+     */
+    public String term(int id){
+        return this.terms[id];
+    }
+
+    /**
+     * A method for retrieving the canonical term id of an id
+     * @param id The id
+     * @return The id of the final synonym (The id itself if the term is not a synonym)
+     */
+    public int canonical(int id){
+        return this.canonical[id];
+    }
+
+    /**
+     * A method to check if the term of an id is present in the target
+     * @param id The id
+     * @return false if the term is retired
+     */
+    public boolean isLive(int id){
+        return this.live.get(id);
+    }
+
+    public int size(){
+        return this.terms.length;
+    }
+
+    public boolean isCaseSensitive() {
+        return caseSensitive;
+    }
+
+}
@@ -0,0 +1,104 @@
+package test;
+
+import cluster.ClusteringRaw;
+import cluster.SimpleCluster;
+import cluster.model.SimpleClusterData;
+import source.DataSource;
+import source.SimpleDataSource;
+import target.Target;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description The fixture shared by the main()-based checks - The location target, the synthetic documents and the cluster mapping SimpleClusterData
+ */
+public final class Checks {
+
+    public static final String[] KEYWORDS = {"절도", "징역", "절취", "성매매", "폭행", "음주"};
+
+    private Checks(){}
+
+    /**
+     * A method for building the location target with the keywords of the checks
+     * @return The target
+     */
+    public static Target locationTarget(){
+        Target.TargetBuilder targetBuilder = ConstKoreaLocation.getBuilderForLocationTarget().noDebug();
+        targetBuilder.addKeywords(KEYWORDS);
+        return targetBuilder.build();
+    }
+
+    /**
+     * A method for collecting every term of a target - The keywords, the categories and the details
+     * @return The terms
+     */
+    public static List<String> termsOf(Target target){
+        List<String> terms = new ArrayList<>(target.getKeywords());
+        for(String category : target.categorySet()){
+            terms.add(category);
+            terms.addAll(target.getDetailsByKey(category));
+        }
+        return terms;
+    }
+
+    /**
+     * A method for generating short articles mixing random hangul syllables and the terms of the target
+     * @param target The target
+     * @param count The number of articles
+     * @param random The random source - A fixed seed makes the articles reproducible
+     * @return The data sources
+     */
+    public static List<DataSource> generateDataSources(Target target, int count, Random random){
+        List<String> terms = termsOf(target);
+        List<DataSource> dataSources = new ArrayList<>();
+        for(int i = 0; i < count; i++){
+            StringBuilder builder = new StringBuilder();
+            while(builder.length() < 200){
+                if(random.nextInt(4) == 0){
+                    builder.append(terms.get(random.nextInt(terms.size())));
+                }else{
+                    builder.append((char) ('가' + random.nextInt(11172)));
+                }
+                builder.append(' ');
+            }
+            dataSources.add(new SimpleDataSource(builder.toString()));
+        }
+        return dataSources;
+    }
+
+    /**
+     * A method for creating a cluster mapping each cell into SimpleClusterData
+     * @return The cluster
+     */
+    public static SimpleCluster<SimpleClusterData> newCluster(Target target, List<DataSource> dataSources){
+        return new SimpleCluster<SimpleClusterData>(target, dataSources) {
+            @Override
+            public SimpleClusterData map(ClusteringRaw raw) {
+                return new SimpleClusterData(raw);
+            }
+        };
+    }
+
+    /**
+     * A method for taking the cells of a cluster as sorted strings, so that two clusters can be compared
+     * @return The strings of the mapped cells
+     */
+    public static Set<String> toStrings(SimpleCluster<SimpleClusterData> cluster){
+        Set<String> result = new TreeSet<>();
+        for(SimpleClusterData data : cluster.takeAll()) result.add(data.toString());
+        return result;
+    }
+
+    /**
+     * A method for failing a check
+     * @param condition The condition which must hold
+     * @param message The message of the failure
+     * @throws IllegalStateException when the condition does not hold
+     */
+    public static void check(boolean condition, String message) throws IllegalStateException{
+        if(!condition) throw new IllegalStateException(message);
+    }
+
+}
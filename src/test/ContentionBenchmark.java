@@ -0,0 +1,141 @@
+package test;
+
+import cluster.Cluster;
+import cluster.ClusteringRaw;
+import cluster.SimpleCluster;
+import cluster.model.SimpleClusterData;
+import target.Target;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Benchmark measuring the throughput and the lost increments of putData with several threads updating the same hot cells.
+ * The former check-then-act counting is replicated as the baseline.
+ */
+public class ContentionBenchmark {
+
+    private static final int OPERATIONS_PER_THREAD = 500_000;
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    public static void main(String... args) throws InterruptedException {
+
+        final Target target = Target.builder()
+                .noDebug()
+                .addCategories("Korea", "Japan")
+                .addDetails("Korea", "seoul", "pusan")
+                .addDetails("Japan", "tokyo", "sapporo")
+                .addKeywords("suicide", "mistake", "crash")
+                .build();
+
+        /**
+         * Hot cells - every thread updates the same few (category, detail, keyword) triples
+         */
+        final int[][] cells = {
+                {target.getTermId("Korea"), target.getTermId("seoul"), target.getTermId("mistake")},
+                {target.getTermId("Korea"), target.getNotCategorizedId(), target.getTermId("mistake")},
+                {target.getTermId("Japan"), target.getTermId("tokyo"), target.getTermId("crash")},
+                {target.getTermId("Japan"), target.getNotCategorizedId(), target.getTermId("crash")}
+        };
+
+        System.out.println(String.format("[ContentionBenchmark] %d processors, %d operations per thread", Runtime.getRuntime().availableProcessors(), OPERATIONS_PER_THREAD));
+
+        for(int threads : THREADS){
+            final Cluster<SimpleClusterData> cluster = new SimpleCluster<SimpleClusterData>(target) {
+                @Override
+                public SimpleClusterData map(ClusteringRaw raw) {
+                    return new SimpleClusterData(raw);
+                }
+            };
+            final LegacyCounter legacy = new LegacyCounter();
+
+            final long atomicElapsed = run(threads, () -> {
+                for(int i = 0; i < OPERATIONS_PER_THREAD; i++){
+                    final int[] cell = cells[i & 3];
+                    cluster.putData(cell[0], cell[1], cell[2]);
+                }
+            });
+            final long legacyElapsed = run(threads, () -> {
+                for(int i = 0; i < OPERATIONS_PER_THREAD; i++){
+                    final int[] cell = cells[i & 3];
+                    legacy.putData(target.getTerm(cell[0]), target.getTerm(cell[1]), target.getTerm(cell[2]));
+                }
+            });
+
+            final long expected = (long) threads * OPERATIONS_PER_THREAD;
+            long atomicTotal = 0;
+            for(ClusteringRaw raw : cluster.asList()) atomicTotal += raw.getCount();
+
+            System.out.println(String.format("[ContentionBenchmark] %2d threads  ATOMIC %8.1f Mops/s %10d lost  LEGACY %8.1f Mops/s %10d lost",
+                    threads,
+                    expected / (atomicElapsed / 1e3),
+                    expected - atomicTotal,
+                    expected / (legacyElapsed / 1e3),
+                    expected - legacy.total()));
+        }
+
+    }
+
+    private static long run(int threads, Runnable task) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] workers = new Thread[threads];
+        for(int i = 0; i < threads; i++){
+            workers[i] = new Thread(() -> {
+                try{
+                    start.await();
+                }catch (InterruptedException e){
+                    return;
+                }
+                task.run();
+            });
+            workers[i].start();
+        }
+        final long begin = System.nanoTime();
+        start.countDown();
+        for(Thread worker : workers) worker.join();
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * The former counting of putData - check-then-act on the map, a plain int count and an unsynchronized keyword tally
+     */
+    private static class LegacyCounter {
+
+        private final ConcurrentHashMap<String, LegacyCell> map = new ConcurrentHashMap<>();
+
+        void putData(String category, String detail, String keyword){
+            final String key = String.format("%s-[CLUSTER_KEY]-$s-%s", category, detail, keyword);
+            final LegacyCell cell;
+            if(map.containsKey(key)){
+                cell = map.get(key);
+                cell.count = cell.count + 1;
+            }else{
+                cell = new LegacyCell();
+                cell.count = 1;
+                map.put(key, cell);
+            }
+            try{
+                final Integer tally = cell.keywords.get(keyword);
+                cell.keywords.put(keyword, tally == null ? 1 : tally + 1);
+            }catch (RuntimeException e){
+                // The unsynchronized tally may be corrupted by a concurrent resize
+            }
+        }
+
+        long total(){
+            long total = 0;
+            for(LegacyCell cell : map.values()) total += cell.count;
+            return total;
+        }
+    }
+
+    private static class LegacyCell {
+        private int count;
+        private final Map<String, Integer> keywords = new HashMap<>();
+    }
+
+}
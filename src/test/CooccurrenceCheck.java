@@ -0,0 +1,91 @@
+package test;
+
+import cluster.ClusteringRaw;
+import cluster.SimpleCluster;
+import cluster.model.KeywordPair;
+import cluster.model.SimpleClusterData;
+import source.DataSource;
+import source.SimpleDataSource;
+import target.Target;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Check of the keyword co-occurrence matrix - Every pair must count the documents of its category containing both keywords,
+ * no pair may exceed the hits of its keywords in the cells of takeAll(), and the top pairs must agree with the matrix. Serial and parallel makes must agree.
+ */
+public class CooccurrenceCheck {
+
+    private static final int DOCUMENTS = 5000;
+    private static final String[] KEYWORDS = Checks.KEYWORDS;
+
+    public static void main(String... args) {
+
+        Target target = Checks.locationTarget();
+        String[] categories = target.categorySet().toArray(new String[0]);
+
+        /**
+         * Each document has a category and a few keywords, and the pairs of its distinct keywords are counted once
+         */
+        Random random = new Random(23);
+        Map<String, Long> exact = new HashMap<>();
+        List<DataSource> dataSources = new ArrayList<>();
+        for(int i = 0; i < DOCUMENTS; i++){
+            String category = categories[random.nextInt(3)];
+            SortedSet<String> keywords = new TreeSet<>();
+            int size = random.nextInt(5);
+            for(int j = 0; j < size; j++) keywords.add(KEYWORDS[random.nextInt(KEYWORDS.length)]);
+            StringBuilder builder = new StringBuilder(category);
+            for(String keyword : keywords) builder.append(' ').append(keyword).append(' ').append(keyword);
+            dataSources.add(new SimpleDataSource(builder.toString()));
+
+            List<String> sorted = new ArrayList<>(keywords);
+            for(int a = 0; a < sorted.size(); a++){
+                for(int b = a + 1; b < sorted.size(); b++) exact.merge(category + "/" + sorted.get(a) + "/" + sorted.get(b), 1L, Long::sum);
+            }
+        }
+
+        for(int parallelism : new int[]{1, 4}){
+            SimpleCluster<SimpleClusterData> cluster = Checks.newCluster(target, dataSources);
+            cluster.setCooccurrenceTracking(true);
+            cluster.setParallelism(parallelism);
+            cluster.make();
+
+            Map<String, Long> hits = new HashMap<>();
+            for(ClusteringRaw raw : cluster.asList()){
+                for(Map.Entry<String, Integer> keyword : raw.getKeywords().entrySet()){
+                    hits.merge(raw.getCategory() + "/" + keyword.getKey(), (long) keyword.getValue(), Long::sum);
+                }
+            }
+
+            for(String category : Arrays.copyOf(categories, 3)){
+                for(int a = 0; a < KEYWORDS.length; a++){
+                    for(int b = 0; b < KEYWORDS.length; b++){
+                        if(a == b) continue;
+                        String first = KEYWORDS[a].compareTo(KEYWORDS[b]) < 0 ? KEYWORDS[a] : KEYWORDS[b];
+                        String second = first.equals(KEYWORDS[a]) ? KEYWORDS[b] : KEYWORDS[a];
+                        long expected = exact.getOrDefault(category + "/" + first + "/" + second, 0L);
+                        long count = cluster.getCooccurrence(category, KEYWORDS[a], KEYWORDS[b]);
+                        Checks.check(count == expected, String.format("The pair [%s, %s, %s] counts %d instead of %d", category, KEYWORDS[a], KEYWORDS[b], count, expected));
+                        Checks.check(count <= hits.getOrDefault(category + "/" + KEYWORDS[a], 0L), String.format("The pair [%s, %s, %s] exceeds the hits of %s in takeAll()", category, KEYWORDS[a], KEYWORDS[b], KEYWORDS[a]));
+                    }
+                }
+
+                long last = Long.MAX_VALUE;
+                for(KeywordPair pair : cluster.getTopPairs(category, 10)){
+                    Checks.check(pair.getCount() <= last, "The top pairs of " + category + " are not in descending order");
+                    Checks.check(pair.getCount() == cluster.getCooccurrence(category, pair.getKeyword(), pair.getOther()), "The top pair " + pair + " differs from the matrix");
+                    last = pair.getCount();
+                }
+                for(KeywordPair pair : cluster.getTopPairs(category, "폭행", 10)){
+                    Checks.check(pair.getKeyword().equals("폭행"), "The top pair " + pair + " does not start with the keyword");
+                    Checks.check(pair.getCount() == cluster.getCooccurrence(category, "폭행", pair.getOther()), "The top pair " + pair + " differs from the matrix");
+                }
+            }
+            System.out.println(String.format("[CooccurrenceCheck] parallelism %d, %d pairs of %d documents - passed", parallelism, exact.size(), DOCUMENTS));
+        }
+    }
+
+}
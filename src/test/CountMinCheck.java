@@ -0,0 +1,101 @@
+package test;
+
+import cluster.ClusterSnapshot;
+import cluster.SimpleCluster;
+import cluster.constants.StorageMode;
+import cluster.model.CountEstimate;
+import cluster.model.SimpleClusterData;
+import cluster.store.CountMinSketch;
+import source.DataSource;
+import target.Target;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Check of the Count-Min sketch against the exact counts - An estimate must never undercount,
+ * and the share of the estimates exceeding the error bound must stay within 1 - confidence (with a margin of three standard deviations).
+ */
+public class CountMinCheck {
+
+    private static final int KEYS = 20000;
+    private static final int HITS = 200000;
+    private static final int DOCUMENTS = 5000;
+
+    public static void main(String... args) {
+
+        for(int width : new int[]{64, 512, 4096}){
+            for(int depth : new int[]{1, 2, 4}){
+                Random random = new Random(width * 31 + depth);
+                CountMinSketch sketch = new CountMinSketch(width, depth);
+                Map<Long, Long> exact = new HashMap<>();
+                for(int i = 0; i < HITS; i++){
+                    long key = (long) (Math.pow(random.nextDouble(), 2) * KEYS);
+                    long hits = 1 + random.nextInt(2);
+                    sketch.add(key, hits);
+                    exact.merge(key, hits, Long::sum);
+                }
+                int over = 0;
+                for(Map.Entry<Long, Long> entry : exact.entrySet()){
+                    long estimate = sketch.estimate(entry.getKey());
+                    Checks.check(estimate >= entry.getValue(), String.format("The estimate %d undercounts %d", estimate, entry.getValue()));
+                    if(estimate > entry.getValue() + sketch.getErrorBound()) over++;
+                }
+                checkShare(over, exact.size(), sketch.getConfidence(), String.format("%d x %d", width, depth));
+                System.out.println(String.format("[CountMinCheck] %4d x %d sketch, %d keys, %d over the bound %d - passed", width, depth, exact.size(), over, sketch.getErrorBound()));
+            }
+        }
+
+        checkCluster();
+    }
+
+    /**
+     * A method for checking the estimates of a cluster in sketch mode against the exact cluster
+     */
+    private static void checkCluster(){
+        Target target = Checks.locationTarget();
+        List<DataSource> dataSources = Checks.generateDataSources(target, DOCUMENTS, new Random(21));
+
+        SimpleCluster<SimpleClusterData> exact = Checks.newCluster(target, dataSources);
+        exact.make();
+        SimpleCluster<SimpleClusterData> sketched = Checks.newCluster(target, dataSources);
+        sketched.setStorageMode(StorageMode.SKETCH);
+        sketched.setSketchDimensions(256, 4);
+        sketched.make();
+
+        ClusterSnapshot cells = exact.snapshot();
+        final int[] over = {0};
+        final double[] confidence = {1};
+        cells.forEach((category, detail, keyword, count) -> {
+            CountEstimate estimate = sketched.getEstimate(category, detail, keyword);
+            Checks.check(estimate.getCount() >= count, "The estimate " + estimate + " undercounts " + count);
+            if(estimate.getCount() > count + estimate.getErrorBound()) over[0]++;
+            confidence[0] = estimate.getConfidence();
+        });
+        checkShare(over[0], cells.size(), confidence[0], "cluster");
+        System.out.println(String.format("[CountMinCheck] cluster of %d cells in a 256 x 4 sketch, %d over the bound - passed", cells.size(), over[0]));
+
+        /**
+         * The cells of the sketch cannot be enumerated, so a snapshot or a merge of the sketched cluster must fail rather than carry nothing
+         */
+        boolean rejected = false;
+        try{
+            Checks.newCluster(target, new ArrayList<>()).merge(sketched);
+        }catch (IllegalStateException e){
+            rejected = true;
+        }
+        Checks.check(rejected, "A cluster in sketch mode is merged as an empty snapshot");
+        System.out.println("[CountMinCheck] rejection of the snapshot in sketch mode - passed");
+    }
+
+    /**
+     * A method for checking the share of the estimates over the error bound
+     */
+    private static void checkShare(int over, int size, double confidence, String name){
+        double expected = size * (1 - confidence);
+        double allowed = expected + 3 * Math.sqrt(expected) + 1;
+        Checks.check(over <= allowed, String.format("%d of %d estimates of the %s sketch exceed the error bound (%.1f allowed)", over, size, name, allowed));
+    }
+
+}
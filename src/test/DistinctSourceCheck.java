@@ -0,0 +1,132 @@
+package test;
+
+import cluster.ClusterSnapshot;
+import cluster.ClusteringRaw;
+import cluster.SimpleCluster;
+import cluster.constants.StorageMode;
+import cluster.model.SimpleClusterData;
+import cluster.store.HyperLogLog;
+import source.DataSource;
+import source.SimpleDataSource;
+import target.Target;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Check of the HyperLogLog estimates against the exact numbers of distinct sources - Every estimate must be within
+ * three standard errors (1.04 / sqrt(2^precision)) of the truth, for a single sketch, a merged sketch and the cells of a cluster.
+ */
+public class DistinctSourceCheck {
+
+    private static final int DOCUMENTS = 20000;
+
+    public static void main(String... args) throws IOException {
+
+        for(int precision : new int[]{8, 12, 14}){
+            for(int cardinality : new int[]{10, 1000, 100000}){
+                HyperLogLog sketch = new HyperLogLog(precision);
+                for(int i = 0; i < cardinality; i++){
+                    sketch.offer(HyperLogLog.hash("source" + i));
+                    /**
+                     * A repeated source must not count again
+                     */
+                    sketch.offer(HyperLogLog.hash("source" + (i / 2)));
+                }
+                checkEstimate(sketch.estimate(), cardinality, precision, "a sketch of " + cardinality);
+                Checks.check(HyperLogLog.fromByteArray(sketch.toByteArray()).estimate() == sketch.estimate(), "The decoded sketch estimates differently");
+
+                HyperLogLog other = new HyperLogLog(precision);
+                for(int i = cardinality / 2; i < cardinality * 2; i++) other.offer(HyperLogLog.hash("source" + i));
+                sketch.merge(other);
+                checkEstimate(sketch.estimate(), cardinality * 2, precision, "the union of " + cardinality * 2);
+                System.out.println(String.format("[DistinctSourceCheck] precision %2d, %6d sources, union %6d - passed", precision, cardinality, sketch.estimate()));
+            }
+        }
+
+        checkCluster();
+        checkSnapshot();
+    }
+
+    /**
+     * A method for checking the distinct counts of the cells of a cluster against the sources of their documents
+     */
+    private static void checkCluster(){
+        Target target = Target.builder().noDebug().addCategories("서울", "부산").addKeywords("절도", "폭행", "음주").build();
+        String[] categories = {"서울", "부산"};
+        String[] keywords = {"절도", "폭행", "음주"};
+
+        Random random = new Random(22);
+        Map<String, Set<String>> exact = new HashMap<>();
+        List<DataSource> dataSources = new ArrayList<>();
+        for(int i = 0; i < DOCUMENTS; i++){
+            String category = categories[random.nextInt(categories.length)];
+            String keyword = keywords[random.nextInt(keywords.length)];
+            /**
+             * The sources repeat with a skew, so the hits of a cell are far more than its distinct sources
+             */
+            String source = "site" + (int) (Math.pow(random.nextDouble(), 2) * 3000) + ".com";
+            dataSources.add(new SimpleDataSource(category + " " + keyword).setSourceId(source));
+            exact.computeIfAbsent(category + "/" + keyword, k -> new HashSet<>()).add(source);
+        }
+
+        int precision = 12;
+        for(StorageMode storageMode : StorageMode.values()){
+            SimpleCluster<SimpleClusterData> cluster = Checks.newCluster(target, dataSources);
+            cluster.setStorageMode(storageMode);
+            cluster.setDistinctPrecision(precision);
+            cluster.make();
+            for(Map.Entry<String, Set<String>> entry : exact.entrySet()){
+                String[] cell = entry.getKey().split("/");
+                ClusteringRaw raw = cluster.getData(cell[0], Target.DETAIL_NOT_CATEGORIZED, cell[1]);
+                Checks.check(raw != null, "The cell " + entry.getKey() + " is absent in " + storageMode);
+                checkEstimate(raw.getDistinctCount(), entry.getValue().size(), precision, entry.getKey() + " in " + storageMode);
+            }
+            System.out.println(String.format("[DistinctSourceCheck] %-6s %d cells of %d documents - passed", storageMode, exact.size(), DOCUMENTS));
+        }
+    }
+
+    /**
+     * A method for checking that the distinct-source sketches survive the round trip and the merge of a snapshot
+     */
+    private static void checkSnapshot() throws IOException{
+        Target target = Checks.locationTarget();
+        List<DataSource> first = new ArrayList<>(), second = new ArrayList<>();
+        for(int i = 0; i < 400; i++) first.add(new SimpleDataSource("서울 절도").setSourceId("source" + i));
+        for(int i = 200; i < 600; i++) second.add(new SimpleDataSource("서울 절도").setSourceId("source" + i));
+
+        SimpleCluster<SimpleClusterData> left = Checks.newCluster(target, first);
+        SimpleCluster<SimpleClusterData> right = Checks.newCluster(target, second);
+        left.setDistinctPrecision(12);
+        right.setDistinctPrecision(12);
+        left.make();
+        right.make();
+
+        ClusterSnapshot decoded = ClusterSnapshot.fromByteArray(right.snapshot().toByteArray());
+        Checks.check(decoded.getDistinctSources("서울", Target.DETAIL_NOT_CATEGORIZED, "절도") != null, "The sketch of a cell is lost in the round trip");
+        left.merge(decoded);
+
+        ClusteringRaw raw = left.getData("서울", Target.DETAIL_NOT_CATEGORIZED, "절도");
+        Checks.check(raw.getLongCount() == 800, "The merged count is " + raw.getLongCount() + " instead of 800");
+        checkEstimate(raw.getDistinctCount(), 600, 12, "the merged cell");
+
+        SimpleCluster<SimpleClusterData> coarse = Checks.newCluster(target, second);
+        coarse.setDistinctPrecision(8);
+        boolean rejected = false;
+        try{
+            coarse.merge(decoded);
+        }catch (IllegalArgumentException e){
+            rejected = true;
+        }
+        Checks.check(rejected, "The sketches of another precision are merged");
+        System.out.println(String.format("[DistinctSourceCheck] snapshot round trip, distinct sources after the merge %d of 600 - passed", raw.getDistinctCount()));
+    }
+
+    private static void checkEstimate(long estimate, long truth, int precision, String name){
+        double allowed = 3 * 1.04 / Math.sqrt(1 << precision) * truth + 1;
+        Checks.check(Math.abs(estimate - truth) <= allowed, String.format("The estimate %d of %s is not within %.1f of %d", estimate, name, allowed, truth));
+    }
+
+}
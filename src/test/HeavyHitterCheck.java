@@ -0,0 +1,129 @@
+package test;
+
+import cluster.ClusteringRaw;
+import cluster.SimpleCluster;
+import cluster.model.HeavyHitter;
+import cluster.model.SimpleClusterData;
+import cluster.store.SpaceSaving;
+import source.DataSource;
+import source.SimpleDataSource;
+import target.Target;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Check of the Space-Saving summaries against the exact counts - Every estimate must overestimate by at most its error,
+ * the items must come in descending order, and a guaranteed item must be counted at least as the first item left out of the exact top.
+ */
+public class HeavyHitterCheck {
+
+    private static final int STREAMS = 300;
+    private static final int DOCUMENTS = 5000;
+
+    public static void main(String... args) {
+
+        Random random = new Random(20);
+        int visited = 0, guaranteed = 0;
+        for(int stream = 0; stream < STREAMS; stream++){
+            int capacity = 1 + random.nextInt(30);
+            int universe = 1 + random.nextInt(100);
+            SpaceSaving summary = new SpaceSaving(capacity);
+            Map<Long, Long> exact = new HashMap<>();
+            int length = 50 + random.nextInt(2000);
+            for(int i = 0; i < length; i++){
+                /**
+                 * A skewed stream - The small items are far more frequent
+                 */
+                long item = (long) (Math.pow(random.nextDouble(), 3) * universe);
+                long weight = 1 + random.nextInt(3);
+                summary.add(item, weight);
+                exact.merge(item, weight, Long::sum);
+            }
+            for(int k : new int[]{1, 3, capacity, capacity + 5}){
+                final long[] last = {Long.MAX_VALUE};
+                final long kept = kthLargest(exact.values(), k);
+                final int[] counted = {0, 0};
+                summary.forEachTop(k, (item, count, error, sure) -> {
+                    long truth = exact.get(item);
+                    Checks.check(count >= truth && count - error <= truth, String.format("The estimate %d with the error %d does not bound %d", count, error, truth));
+                    Checks.check(count <= last[0], "The items are not in descending order");
+                    Checks.check(!sure || truth >= kept, String.format("The item of %d is guaranteed while the item left out of the top %d has %d", truth, k, kept));
+                    last[0] = count;
+                    counted[0]++;
+                    if(sure) counted[1]++;
+                });
+                visited += counted[0];
+                guaranteed += counted[1];
+            }
+        }
+        System.out.println(String.format("[HeavyHitterCheck] %d streams, %d items visited, %d guaranteed - passed", STREAMS, visited, guaranteed));
+
+        checkCluster();
+    }
+
+    /**
+     * A method for checking the heavy hitters of a cluster against its exact cells
+     */
+    private static void checkCluster(){
+        Target target = Checks.locationTarget();
+
+        List<String> terms = new ArrayList<>(target.getKeywords());
+        for(String category : target.categorySet()) terms.addAll(target.getDetailsByKey(category));
+        Random random = new Random(21);
+        List<DataSource> dataSources = new ArrayList<>();
+        for(int i = 0; i < DOCUMENTS; i++){
+            StringBuilder builder = new StringBuilder("서울 ");
+            for(int j = 0; j < 6; j++) builder.append(terms.get((int) (Math.pow(random.nextDouble(), 2) * terms.size()))).append(' ');
+            dataSources.add(new SimpleDataSource(builder.toString()));
+        }
+
+        SimpleCluster<SimpleClusterData> cluster = Checks.newCluster(target, dataSources);
+        cluster.setHeavyHitterCapacity(16);
+        cluster.make();
+
+        List<Long> counts = new ArrayList<>();
+        for(ClusteringRaw raw : cluster.asList()){
+            if(raw.getCategory().equals("서울")) counts.add(raw.getLongCount());
+        }
+        int k = 5, guaranteed = 0;
+        long kept = kthLargest(counts, k);
+        for(HeavyHitter hitter : cluster.getHeavyHitters("서울", k)){
+            ClusteringRaw raw = cluster.getData(hitter.getCategory(), hitter.getDetailCategory(), hitter.getKeyword());
+            long truth = raw == null ? 0 : raw.getLongCount();
+            Checks.check(hitter.getCount() >= truth && hitter.getLowerBound() <= truth, "The heavy hitter " + hitter + " does not bound " + truth);
+            Checks.check(!hitter.isGuaranteed() || truth >= kept, "The heavy hitter " + hitter + " is guaranteed below " + kept);
+            if(hitter.isGuaranteed()) guaranteed++;
+        }
+        System.out.println(String.format("[HeavyHitterCheck] %d cells of 서울, top %d with %d guaranteed - passed", counts.size(), k, guaranteed));
+
+        /**
+         * Without the exact counting the cells are only in the summaries, so a snapshot must fail rather than carry nothing
+         */
+        SimpleCluster<SimpleClusterData> bounded = Checks.newCluster(target, dataSources);
+        bounded.setHeavyHitterCapacity(16);
+        bounded.setExactCounting(false);
+        bounded.make();
+        Checks.check(!bounded.getHeavyHitters("서울", k).isEmpty(), "The summaries count nothing without the exact counting");
+        boolean rejected = false;
+        try{
+            bounded.snapshot();
+        }catch (IllegalStateException e){
+            rejected = true;
+        }
+        Checks.check(rejected, "A cluster without the exact counting takes an empty snapshot");
+        System.out.println("[HeavyHitterCheck] rejection of the snapshot without the exact counting - passed");
+    }
+
+    /**
+     * A method for finding the count of the first item left out of the exact top
+     * @return The (k+1)-th largest count (0 if there are k items or less)
+     */
+    private static long kthLargest(Collection<Long> counts, int k){
+        List<Long> sorted = new ArrayList<>(counts);
+        sorted.sort(Collections.reverseOrder());
+        return k < sorted.size() ? sorted.get(k) : 0;
+    }
+
+}
@@ -0,0 +1,73 @@
+package test;
+
+import cluster.ClusteringRaw;
+import cluster.SimpleCluster;
+import cluster.constants.AggregationStrategy;
+import cluster.constants.FlagState;
+import cluster.constants.StorageMode;
+import cluster.model.SimpleClusterData;
+import source.DataSource;
+import target.Target;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Check of the secondary indexes - The cells of every term queried by category, detail and keyword
+ * must equal the cells of takeAll() filtered by the term, in the exact storage modes and with both aggregation strategies.
+ */
+public class IndexCheck {
+
+    private static final int DOCUMENTS = 5000;
+    private static final FlagState[] ROLES = {FlagState.CATEGORY, FlagState.DETAIL, FlagState.KEYWORD};
+
+    public static void main(String... args) {
+
+        Target target = Checks.locationTarget();
+        List<DataSource> dataSources = Checks.generateDataSources(target, DOCUMENTS, new Random(24));
+        Set<String> queried = new TreeSet<>(Checks.termsOf(target));
+        queried.add(Target.DETAIL_NOT_CATEGORIZED);
+
+        for(StorageMode storageMode : new StorageMode[]{StorageMode.SPARSE, StorageMode.DENSE}){
+            for(AggregationStrategy strategy : AggregationStrategy.values()){
+                SimpleCluster<SimpleClusterData> cluster = Checks.newCluster(target, dataSources);
+                cluster.setStorageMode(storageMode);
+                cluster.setAggregationStrategy(strategy);
+                cluster.setParallelism(3);
+                cluster.make();
+
+                List<ClusteringRaw> all = cluster.asList();
+                List<SimpleClusterData> mapped = cluster.takeAll();
+                Checks.check(all.size() == mapped.size(), "asList() and takeAll() differ in size");
+                int queries = 0, cells = 0;
+                for(String term : queried){
+                    for(FlagState role : ROLES){
+                        Set<String> expected = new TreeSet<>();
+                        for(ClusteringRaw raw : all){
+                            if(termOf(raw, role).equals(term)) expected.add(nameOf(raw));
+                        }
+                        Set<String> actual = new TreeSet<>();
+                        for(ClusteringRaw raw : cluster.asList(role, term)) actual.add(nameOf(raw));
+                        Checks.check(actual.equals(expected), String.format("The %s query of %s differs from takeAll() in %s %s", role, term, storageMode, strategy));
+                        Checks.check(cluster.takeAll(role, term).size() == expected.size(), String.format("The mapped %s query of %s differs in size", role, term));
+                        queries++;
+                        cells += expected.size();
+                    }
+                }
+                System.out.println(String.format("[IndexCheck] %-6s %-7s %d cells, %d queries returning %d cells - passed", storageMode, strategy, all.size(), queries, cells));
+            }
+        }
+    }
+
+    private static String termOf(ClusteringRaw raw, FlagState role){
+        if(role == FlagState.CATEGORY) return raw.getCategory();
+        if(role == FlagState.DETAIL) return raw.getDetailCategory();
+        return raw.getKeywords().keySet().iterator().next();
+    }
+
+    private static String nameOf(ClusteringRaw raw){
+        return raw.getCategory() + "/" + raw.getDetailCategory() + "/" + termOf(raw, FlagState.KEYWORD) + "=" + raw.getLongCount();
+    }
+
+}
@@ -0,0 +1,134 @@
+package test;
+
+import cluster.normalization.matcher.IByteMatcher;
+import cluster.normalization.matcher.IMatcher;
+import cluster.normalization.matcher.MatchHandler;
+import cluster.normalization.matcher.MatcherEngine;
+import target.Target;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Benchmark comparing the scanning cost of the matcher engines and the UTF-8 byte matcher with the korean location target
+ */
+public class MatcherBenchmark {
+
+    private static final int DOCUMENTS = 2000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String... args) {
+
+        Target.TargetBuilder targetBuilder = ConstKoreaLocation.getBuilderForLocationTarget().noDebug();
+        targetBuilder.addKeywords("절도", "징역", "절취", "성매매", "폭행", "음주");
+        Target target = targetBuilder.build();
+
+        List<String> documents = generateDocuments(target, DOCUMENTS, new Random(42));
+        long chars = 0;
+        for(String document : documents) chars += document.length();
+        System.out.println(String.format("[MatcherBenchmark] %d documents, %d characters", documents.size(), chars));
+
+        for(MatcherEngine engine : MatcherEngine.values()){
+            IMatcher matcher = target.getMatcher(engine);
+            Counter counter = new Counter();
+            for(int i = 0; i < ROUNDS; i++) scan(matcher, documents, counter); // Warm up
+
+            counter.matches = 0;
+            long allocated = allocatedBytes();
+            long begin = System.nanoTime();
+            for(int i = 0; i < ROUNDS; i++) scan(matcher, documents, counter);
+            long elapsed = System.nanoTime() - begin;
+            allocated = allocatedBytes() - allocated;
+
+            System.out.println(String.format("[MatcherBenchmark] %-12s %10.1f ns/doc %8.1f MB/s %12d bytes allocated %10d matches",
+                    engine,
+                    (double) elapsed / (ROUNDS * documents.size()),
+                    (chars * ROUNDS * 2.0 / (1 << 20)) / (elapsed / 1e9),
+                    allocated,
+                    counter.matches));
+        }
+
+
+        List<ByteBuffer> buffers = new Vector<>();
+        long bytes = 0;
+        for(String document : documents){
+            byte[] encoded = document.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length);
+            buffer.put(encoded).flip();
+            buffers.add(buffer);
+            bytes += encoded.length;
+        }
+        IByteMatcher byteMatcher = target.getByteMatcher();
+        Counter counter = new Counter();
+        for(int i = 0; i < ROUNDS; i++) scan(byteMatcher, buffers, counter); // Warm up
+
+        counter.matches = 0;
+        long allocated = allocatedBytes();
+        long begin = System.nanoTime();
+        for(int i = 0; i < ROUNDS; i++) scan(byteMatcher, buffers, counter);
+        long elapsed = System.nanoTime() - begin;
+        allocated = allocatedBytes() - allocated;
+
+        System.out.println(String.format("[MatcherBenchmark] %-12s %10.1f ns/doc %8.1f MB/s %12d bytes allocated %10d matches",
+                "UTF8_BYTES",
+                (double) elapsed / (ROUNDS * buffers.size()),
+                (bytes * ROUNDS / (double) (1 << 20)) / (elapsed / 1e9),
+                allocated,
+                counter.matches));
+
+    }
+
+    private static void scan(IByteMatcher matcher, List<ByteBuffer> buffers, Counter counter){
+        for(ByteBuffer buffer : buffers) matcher.match(buffer, counter);
+    }
+
+    private static void scan(IMatcher matcher, List<String> documents, Counter counter){
+        for(String document : documents) matcher.match(document, counter);
+    }
+
+    /**
+     * A method for generating documents mixing random hangul syllables and the terms of the target
+     */
+    private static List<String> generateDocuments(Target target, int count, Random random){
+        List<String> terms = new Vector<>(target.getKeywords());
+        for(String category : target.categorySet()){
+            terms.add(category);
+            terms.addAll(target.getDetailsByKey(category));
+        }
+        List<String> documents = new Vector<>();
+        for(int i = 0; i < count; i++){
+            StringBuilder builder = new StringBuilder();
+            while(builder.length() < 4000){
+                if(random.nextInt(8) == 0){
+                    builder.append(terms.get(random.nextInt(terms.size())));
+                }else{
+                    int length = 1 + random.nextInt(4);
+                    for(int j = 0; j < length; j++) builder.append((char) ('가' + random.nextInt(11172)));
+                }
+                builder.append(' ');
+            }
+            documents.add(builder.toString());
+        }
+        return documents;
+    }
+
+    private static long allocatedBytes(){
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static class Counter implements MatchHandler {
+        private long matches;
+
+        @Override
+        public void onMatch(int termId, int offset) {
+            matches++;
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package test;
+
+import cluster.ClusteringRaw;
+import cluster.SimpleCluster;
+import cluster.constants.AggregationStrategy;
+import cluster.constants.StorageMode;
+import cluster.model.CountEstimate;
+import cluster.model.SimpleClusterData;
+import source.DataSource;
+import source.SimpleDataSource;
+import target.Target;
+
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Benchmark measuring the throughput of make() across the numbers of workers with the korean location target.
+ * Every exact result is compared with the serial one of the shared strategy, and every estimate of the sketch mode is checked
+ * against the serial count and the error bound of the sketch.
+ */
+public class ParallelMakeBenchmark {
+
+    private static final int DOCUMENTS = 50000;
+    private static final int ROUNDS = 3;
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    public static void main(String... args) {
+
+        Target.TargetBuilder targetBuilder = ConstKoreaLocation.getBuilderForLocationTarget().noDebug();
+        targetBuilder.addKeywords("절도", "징역", "절취", "성매매", "폭행", "음주");
+        Target target = targetBuilder.build();
+
+        List<DataSource> dataSources = generateDataSources(target, DOCUMENTS, new Random(42));
+        System.out.println(String.format("[ParallelMakeBenchmark] %d processors, %d documents", Runtime.getRuntime().availableProcessors(), dataSources.size()));
+
+        SimpleCluster<SimpleClusterData> serial = null;
+        for(StorageMode storageMode : StorageMode.values()){
+            for(AggregationStrategy strategy : AggregationStrategy.values()){
+                for(int threads : THREADS) serial = run(target, dataSources, storageMode, strategy, threads, serial);
+            }
+        }
+
+    }
+
+    /**
+     * A method for measuring the best of the rounds of a configuration
+     * @param serial The serial cluster to compare with (null on the first configuration)
+     * @return The serial cluster
+     */
+    private static SimpleCluster<SimpleClusterData> run(Target target, List<DataSource> dataSources, StorageMode storageMode, AggregationStrategy strategy, int threads, SimpleCluster<SimpleClusterData> serial){
+        long best = Long.MAX_VALUE;
+        SimpleCluster<SimpleClusterData> cluster = null;
+        for(int i = 0; i < ROUNDS; i++){
+            cluster = newCluster(target, dataSources);
+            cluster.setStorageMode(storageMode);
+            cluster.setAggregationStrategy(strategy);
+            cluster.setParallelism(threads);
+            long begin = System.nanoTime();
+            cluster.make();
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+        if(serial == null) serial = cluster;
+
+        final String verdict;
+        final int cells;
+        if(storageMode == StorageMode.SKETCH){
+            /**
+             * The sketch keeps no cells, so each serial cell is estimated instead - An estimate never undercounts
+             * and exceeds the true count by the error bound with the probability 1 - confidence at most
+             */
+            final SimpleCluster<SimpleClusterData> sketched = cluster;
+            final int[] checked = {0, 0, 0};
+            serial.snapshot().forEach((category, detail, keyword, count) -> {
+                final CountEstimate estimate = sketched.getEstimate(category, detail, keyword);
+                checked[0]++;
+                if(estimate.getCount() < count) checked[1]++;
+                else if(estimate.getCount() > count + estimate.getErrorBound()) checked[2]++;
+            });
+            cells = checked[0];
+            verdict = checked[1] > 0 ? "UNDERCOUNTED" : String.format("%d over the error bound", checked[2]);
+        }else{
+            final Set<String> result = toStrings(cluster), expected = toStrings(serial);
+            cells = result.size();
+            verdict = result.equals(expected) ? "identical" : "DIFFERENT";
+        }
+
+        System.out.println(String.format("[ParallelMakeBenchmark] %-6s %-7s %2d threads %10.1f docs/s %6d cells %s",
+                storageMode,
+                strategy,
+                threads,
+                dataSources.size() / (best / 1e9),
+                cells,
+                verdict));
+        return serial;
+    }
+
+    private static Set<String> toStrings(SimpleCluster<SimpleClusterData> cluster){
+        final Set<String> result = new TreeSet<>();
+        for(SimpleClusterData data : cluster.takeAll()) result.add(data.toString());
+        return result;
+    }
+
+    private static SimpleCluster<SimpleClusterData> newCluster(Target target, List<DataSource> dataSources){
+        return new SimpleCluster<SimpleClusterData>(target, dataSources) {
+            @Override
+            public SimpleClusterData map(ClusteringRaw raw) {
+                return new SimpleClusterData(raw);
+            }
+        };
+    }
+
+    /**
+     * A method for generating short articles mixing random hangul syllables and the terms of the target
+     */
+    private static List<DataSource> generateDataSources(Target target, int count, Random random){
+        List<String> terms = new Vector<>(target.getKeywords());
+        for(String category : target.categorySet()){
+            terms.add(category);
+            terms.addAll(target.getDetailsByKey(category));
+        }
+        List<DataSource> dataSources = new Vector<>();
+        for(int i = 0; i < count; i++){
+            StringBuilder builder = new StringBuilder();
+            while(builder.length() < 600){
+                if(random.nextInt(12) == 0){
+                    builder.append(terms.get(random.nextInt(terms.size())));
+                }else{
+                    int length = 1 + random.nextInt(4);
+                    for(int j = 0; j < length; j++) builder.append((char) ('가' + random.nextInt(11172)));
+                }
+                builder.append(' ');
+            }
+            dataSources.add(new SimpleDataSource(builder.toString()));
+        }
+        return dataSources;
+    }
+
+}
@@ -0,0 +1,98 @@
+package test;
+
+import cluster.ClusterSnapshot;
+import cluster.SimpleCluster;
+import cluster.constants.StorageMode;
+import cluster.model.SimpleClusterData;
+import source.DataSource;
+import source.SimpleDataSource;
+import target.Target;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * @author EuiJin.Ham
+ * @version 1.0.0
+ * @description A Check of the cluster snapshots - The snapshots of the partitions of the documents are encoded, decoded and reduced in several orders,
+ * and every result must equal the snapshot of the cluster of every document. A snapshot addressing no cell of the target must merge nothing.
+ */
+public class SnapshotCheck {
+
+    private static final int DOCUMENTS = 3000;
+    private static final int PARTITIONS = 3;
+
+    public static void main(String... args) throws IOException {
+
+        Target target = Checks.locationTarget();
+        List<DataSource> dataSources = Checks.generateDataSources(target, DOCUMENTS, new Random(18));
+
+        for(StorageMode storageMode : new StorageMode[]{StorageMode.SPARSE, StorageMode.DENSE}){
+            SimpleCluster<SimpleClusterData> whole = newCluster(target, dataSources, storageMode);
+            whole.make();
+            ClusterSnapshot expected = whole.snapshot();
+
+            List<ClusterSnapshot> parts = new ArrayList<>();
+            int chunk = (dataSources.size() + PARTITIONS - 1) / PARTITIONS;
+            for(int from = 0; from < dataSources.size(); from += chunk){
+                SimpleCluster<SimpleClusterData> part = newCluster(target, dataSources.subList(from, Math.min(from + chunk, dataSources.size())), storageMode);
+                part.make();
+                byte[] bytes = part.snapshot().toByteArray();
+                ClusterSnapshot decoded = ClusterSnapshot.fromByteArray(bytes);
+                Checks.check(decoded.equals(part.snapshot()), "A decoded snapshot differs from the encoded one");
+                Checks.check(Arrays.equals(bytes, decoded.toByteArray()), "A snapshot is not encoded into the same bytes twice");
+                parts.add(decoded);
+            }
+
+            /**
+             * The reduce is associative and commutative
+             */
+            ClusterSnapshot forward = parts.get(0).merge(parts.get(1)).merge(parts.get(2));
+            ClusterSnapshot backward = parts.get(2).merge(parts.get(1).merge(parts.get(0)));
+            Checks.check(forward.equals(expected), "The reduced snapshot differs from the whole one");
+            Checks.check(backward.equals(expected), "The snapshots reduced in another order differ from the whole one");
+            Checks.check(Arrays.equals(forward.toByteArray(), expected.toByteArray()), "The reduced snapshot is not encoded into the bytes of the whole one");
+
+            SimpleCluster<SimpleClusterData> merged = newCluster(target, new ArrayList<>(), storageMode);
+            merged.make();
+            for(ClusterSnapshot part : parts) merged.merge(part);
+            Checks.check(merged.snapshot().equals(expected), "The cluster merging the snapshots differs from the whole one");
+            Checks.check(Checks.toStrings(merged).equals(Checks.toStrings(whole)), "The cells of the merged cluster differ from the whole one");
+
+            System.out.println(String.format("[SnapshotCheck] %-6s %d cells in %d bytes - round trip and merge passed", storageMode, expected.size(), expected.toByteArray().length));
+        }
+
+        checkRejection(target);
+    }
+
+    /**
+     * A method for checking that a snapshot with a cell of another role merges nothing
+     */
+    private static void checkRejection(Target target){
+        Target other = Target.builder().noDebug().addCategories("서울").addDetails("서울", "절도").addKeywords("폭행").build();
+        SimpleCluster<SimpleClusterData> source = newCluster(other, Arrays.asList(new SimpleDataSource("서울 폭행"), new SimpleDataSource("서울 절도 폭행")), StorageMode.SPARSE);
+        source.make();
+        ClusterSnapshot snapshot = source.snapshot();
+
+        for(StorageMode storageMode : StorageMode.values()){
+            SimpleCluster<SimpleClusterData> cluster = newCluster(target, new ArrayList<>(), storageMode);
+            cluster.make();
+            boolean rejected = false;
+            try{
+                cluster.merge(snapshot);
+            }catch (IllegalArgumentException e){
+                rejected = true;
+            }
+            Checks.check(rejected, "A keyword given as a detail is merged in " + storageMode);
+            Checks.check(cluster.getData("서울", Target.DETAIL_NOT_CATEGORIZED, "폭행") == null, "A cell is merged before the rejection in " + storageMode);
+        }
+        System.out.println("[SnapshotCheck] rejection of the cells of another role - passed");
+    }
+
+    private static SimpleCluster<SimpleClusterData> newCluster(Target target, List<DataSource> dataSources, StorageMode storageMode){
+        SimpleCluster<SimpleClusterData> cluster = Checks.newCluster(target, dataSources);
+        cluster.setStorageMode(storageMode);
+        return cluster;
+    }
+
+}